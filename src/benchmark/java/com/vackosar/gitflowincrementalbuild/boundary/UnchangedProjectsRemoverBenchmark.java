@@ -0,0 +1,98 @@
+package com.vackosar.gitflowincrementalbuild.boundary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vackosar.gitflowincrementalbuild.control.ChangedProjects;
+import com.vackosar.gitflowincrementalbuild.control.DifferentFiles;
+import com.vackosar.gitflowincrementalbuild.control.Modules;
+import com.vackosar.gitflowincrementalbuild.control.Property;
+import com.vackosar.gitflowincrementalbuild.control.jgit.GitProvider;
+import com.vackosar.gitflowincrementalbuild.mocks.Components;
+import com.vackosar.gitflowincrementalbuild.mocks.SyntheticRepoMock;
+
+/**
+ * Benchmarks {@link UnchangedProjectsRemover#act(Configuration)} with precalculated changed projects (see {@code ChangedProjectsBenchmark}), i.e. the
+ * calculation of impacted modules and the modification of the session.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UnchangedProjectsRemoverBenchmark {
+
+    /** {@code <modules>x<files per module>}, see {@link SyntheticRepoMock}. */
+    @Param({ "10x10", "200x10", "2000x10" })
+    public String shape;
+
+    @Param({ "1", "10", "100" })
+    public int changedPercentage;
+
+    @Param({ "false", "true" })
+    public boolean reuseAcrossBuilds;
+
+    private UnchangedProjectsRemover underTest;
+    private MavenSession session;
+    private List<MavenProject> projects;
+    private Configuration config;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Properties gibProperties = new Properties();
+        gibProperties.put(Property.reuseAcrossBuilds.prefixedName(), String.valueOf(reuseAcrossBuilds));
+        Set<MavenProject> changed;
+        try (SyntheticRepoMock repo = new SyntheticRepoMock(shape, changedPercentage)) {
+            session = repo.createMavenSession(gibProperties);
+            config = new Configuration(session);
+
+            GitProvider gitProvider = new GitProvider();
+            ChangedProjects changedProjects = new ChangedProjects();
+            Components.inject(changedProjects, Components.inject(new DifferentFiles(), gitProvider));
+            Components.inject(changedProjects, new Modules());
+            try {
+                changed = changedProjects.get(config);
+            } finally {
+                gitProvider.close();
+            }
+        }
+        projects = new ArrayList<>(session.getProjects());
+
+        underTest = Components.inject(new UnchangedProjectsRemover(), new ChangedProjects() {
+            @Override
+            public Set<MavenProject> get(Configuration config) {
+                return changed;
+            }
+        });
+    }
+
+    @Benchmark
+    public List<MavenProject> act() throws Exception {
+        // undo the modifications of the previous invocation
+        session.setProjects(new ArrayList<>(projects));
+        session.getGoals().clear();
+        session.getGoals().add("install");
+
+        underTest.act(config);
+        return session.getProjects();
+    }
+}
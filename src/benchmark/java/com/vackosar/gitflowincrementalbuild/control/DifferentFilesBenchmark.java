@@ -0,0 +1,78 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vackosar.gitflowincrementalbuild.boundary.Configuration;
+import com.vackosar.gitflowincrementalbuild.control.jgit.GitProvider;
+import com.vackosar.gitflowincrementalbuild.mocks.Components;
+import com.vackosar.gitflowincrementalbuild.mocks.SyntheticRepoMock;
+
+/**
+ * Benchmarks {@link DifferentFiles#get(Configuration)} (branch diff, uncommitted and untracked files) including opening and closing the repository,
+ * like in a regular build.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DifferentFilesBenchmark {
+
+    /** {@code <modules>x<files per module>}, see {@link SyntheticRepoMock}. */
+    @Param({ "10x100", "200x100", "2000x50" })
+    public String shape;
+
+    @Param({ "10" })
+    public int changedPercentage;
+
+    @Param({ "false", "true" })
+    public boolean reuseAcrossBuilds;
+
+    private SyntheticRepoMock repo;
+    private GitProvider gitProvider;
+    private DifferentFiles underTest;
+    private Configuration config;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        repo = new SyntheticRepoMock(shape, changedPercentage);
+        gitProvider = new GitProvider();
+        underTest = Components.inject(new DifferentFiles(), gitProvider);
+        Properties gibProperties = new Properties();
+        gibProperties.put(Property.reuseAcrossBuilds.prefixedName(), String.valueOf(reuseAcrossBuilds));
+        config = new Configuration(repo.createMavenSession(gibProperties));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        gitProvider.close();
+        repo.close();
+    }
+
+    @Benchmark
+    public Set<Path> get() throws Exception {
+        try {
+            return underTest.get(config);
+        } finally {
+            gitProvider.close();
+        }
+    }
+}
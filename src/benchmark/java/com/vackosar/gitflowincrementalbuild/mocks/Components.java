@@ -0,0 +1,39 @@
+package com.vackosar.gitflowincrementalbuild.mocks;
+
+import java.lang.reflect.Field;
+
+import javax.inject.Inject;
+
+/**
+ * Wires components without a DI container (which is provided by Maven at runtime).
+ */
+public class Components {
+
+    private Components() {
+    }
+
+    /**
+     * Sets the given dependency into the first {@link Inject @Inject} field of the given component that accepts it.
+     *
+     * @param <T> the type of the component
+     * @param component the component to inject into
+     * @param dependency the dependency to inject
+     * @return the given component
+     */
+    public static <T> T inject(T component, Object dependency) {
+        for (Class<?> type = component.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Inject.class) && field.getType().isInstance(dependency)) {
+                    field.setAccessible(true);
+                    try {
+                        field.set(component, dependency);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException("Cannot inject into " + field, e);
+                    }
+                    return component;
+                }
+            }
+        }
+        throw new IllegalArgumentException("No @Inject field in " + component.getClass() + " accepts " + dependency.getClass());
+    }
+}
@@ -0,0 +1,250 @@
+package com.vackosar.gitflowincrementalbuild.mocks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+
+/**
+ * Generates a Git repository with a configurable number of modules and files (see {@link #SyntheticRepoMock(String, int)}) in a temporary directory.
+ * <p>
+ * The reference branch {@value #REFERENCE_BRANCH} contains all modules, the checked out feature branch changes one file in the given percentage of the
+ * modules (starting with the last one). Additionally, there is one uncommitted and one untracked file. Each module depends on its "parent" in a binary tree of modules so that the
+ * downstream and upstream modules are not trivial.
+ * </p>
+ */
+public class SyntheticRepoMock implements AutoCloseable {
+
+    public static final String REFERENCE_BRANCH = "refs/heads/develop";
+
+    private static final int FILES_PER_DIRECTORY = 100;
+
+    static {
+        JGitIsolation.ensureIsolatedFromSystemAndUserConfig();
+    }
+
+    private final Path baseDir;
+    private final Path repoDir;
+    private final List<Path> moduleDirs = new ArrayList<>();
+    private Git git;
+
+    /**
+     * @param shape {@code <modules>x<files per module>}, e.g. {@code 200x100}
+     * @param changedPercentage the percentage of modules that are changed in the feature branch
+     * @throws IOException in case the files cannot be written
+     * @throws GitAPIException in case of a Git related problem
+     */
+    public SyntheticRepoMock(String shape, int changedPercentage) throws IOException, GitAPIException {
+        String[] dimensions = shape.split("x");
+        if (dimensions.length != 2) {
+            throw new IllegalArgumentException("Shape must be <modules>x<files per module>: " + shape);
+        }
+        int moduleCount = Integer.parseInt(dimensions[0]);
+        int filesPerModule = Integer.parseInt(dimensions[1]);
+
+        baseDir = Files.createTempDirectory("gib-benchmark");
+        repoDir = baseDir.resolve("repo");
+        try {
+            git = Git.init().setDirectory(repoDir.toFile()).call();
+            git.getRepository().getConfig().setString("gc", null, "auto", "0");
+            git.getRepository().getConfig().save();
+
+            writePom(repoDir, "root", moduleCount);
+            for (int i = 0; i < moduleCount; i++) {
+                Path moduleDir = repoDir.resolve(moduleName(i));
+                moduleDirs.add(moduleDir);
+                writePom(moduleDir, moduleName(i), 0);
+                for (int j = 0; j < filesPerModule; j++) {
+                    writeFile(moduleDir, j, "class File" + j + " {} // " + moduleName(i) + "\n");
+                }
+            }
+            commit("initial");
+            git.branchCreate().setName("develop").call();
+            git.checkout().setCreateBranch(true).setName("feature").call();
+
+            if (changedPercentage > 0 && filesPerModule > 0) {
+                int step = Math.max(1, Math.round(100f / changedPercentage));
+                for (int i = moduleCount - 1; i >= 0; i -= step) {
+                    writeFile(moduleDirs.get(i), 0, "// changed\n", StandardOpenOption.APPEND);
+                }
+                commit("feature");
+            }
+
+            if (moduleCount > 0) {
+                if (filesPerModule > 0) {
+                    writeFile(moduleDirs.get(moduleCount / 2), 0, "// uncommitted\n", StandardOpenOption.APPEND);
+                }
+                Files.write(moduleDirs.get(moduleCount - 1).resolve("untracked.txt"), "untracked\n".getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException | GitAPIException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private static String moduleName(int index) {
+        return String.format("module-%05d", index);
+    }
+
+    private static void writePom(Path dir, String artifactId, int moduleCount) throws IOException {
+        StringBuilder pom = new StringBuilder("<project>\n  <artifactId>").append(artifactId).append("</artifactId>\n");
+        for (int i = 0; i < moduleCount; i++) {
+            pom.append("  <module>").append(moduleName(i)).append("</module>\n");
+        }
+        pom.append("</project>\n");
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("pom.xml"), pom.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeFile(Path moduleDir, int index, String content, StandardOpenOption... options) throws IOException {
+        Path dir = moduleDir.resolve("src/main/java/p" + index / FILES_PER_DIRECTORY);
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("File" + index + ".java"), content.getBytes(StandardCharsets.UTF_8), options);
+    }
+
+    private void commit(String message) throws GitAPIException {
+        git.add().addFilepattern(".").call();
+        git.commit().setMessage(message).call();
+    }
+
+    /**
+     * Creates a new {@link MavenSession} with the root project and all modules of the generated repository, as if Maven was started in the root
+     * directory.
+     *
+     * @param gibProperties GIB properties for the root project ({@link #REFERENCE_BRANCH} is used as reference branch by default)
+     * @return a new {@link MavenSession}
+     */
+    @SuppressWarnings("deprecation") // MavenSession constructor, but there is no container here
+    public MavenSession createMavenSession(Properties gibProperties) {
+        List<MavenProject> projects = new ArrayList<>(moduleDirs.size() + 1);
+        MavenProject root = createProject(repoDir, "root", "pom");
+        root.setExecutionRoot(true);
+        root.getModel().getProperties().put("gib.referenceBranch", REFERENCE_BRANCH);
+        root.getModel().getProperties().putAll(gibProperties);
+        projects.add(root);
+        for (Path moduleDir : moduleDirs) {
+            MavenProject module = createProject(moduleDir, moduleDir.getFileName().toString(), "jar");
+            root.getModel().addModule(module.getArtifactId());
+            projects.add(module);
+        }
+
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setBaseDirectory(repoDir.toFile());
+        request.setGoals(new ArrayList<>(Collections.singletonList("install")));
+        MavenSession session = new MavenSession(null, null, request, new DefaultMavenExecutionResult());
+        session.setProjects(projects);
+        session.setAllProjects(projects);
+        session.setProjectDependencyGraph(new BinaryTreeDependencyGraph(projects));
+        session.setCurrentProject(root);
+        return session;
+    }
+
+    private static MavenProject createProject(Path dir, String artifactId, String packaging) {
+        MavenProject project = new MavenProject();
+        Model model = new Model();
+        model.setProperties(new Properties());
+        project.setModel(model);
+        project.setGroupId("com.vackosar.gitflowincrementalbuild.benchmark");
+        project.setArtifactId(artifactId);
+        project.setVersion("1");
+        project.setPackaging(packaging);
+        project.setFile(dir.resolve("pom.xml").toFile());
+        return project;
+    }
+
+    public Git getGit() {
+        return git;
+    }
+
+    public Path getRepoDir() {
+        return repoDir;
+    }
+
+    @Override
+    public void close() {
+        if (git != null) {
+            git.getRepository().close();
+            git.close();
+            git = null;
+        }
+        try (Stream<Path> paths = Files.walk(baseDir)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(File::delete);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Module {@code n} (starting with {@code 0}, in reactor order without root) depends on module {@code (n - 1) / 2}. The root project is not part of
+     * the graph (aggregator only).
+     */
+    private static class BinaryTreeDependencyGraph implements ProjectDependencyGraph {
+
+        private final List<MavenProject> projects;
+        private final Map<MavenProject, Integer> moduleIndexes = new IdentityHashMap<>();
+        private final List<List<MavenProject>> downstream = new ArrayList<>();
+        private final List<List<MavenProject>> upstream = new ArrayList<>();
+        private final List<List<MavenProject>> directDownstream = new ArrayList<>();
+        private final List<List<MavenProject>> directUpstream = new ArrayList<>();
+
+        BinaryTreeDependencyGraph(List<MavenProject> projects) {
+            this.projects = projects;
+            List<MavenProject> modules = projects.subList(1, projects.size());
+            for (int i = 0; i < modules.size(); i++) {
+                moduleIndexes.put(modules.get(i), i);
+                downstream.add(new ArrayList<>());
+                directDownstream.add(new ArrayList<>());
+                directUpstream.add(i > 0 ? Collections.singletonList(modules.get((i - 1) / 2)) : Collections.emptyList());
+                if (i > 0) {
+                    directDownstream.get((i - 1) / 2).add(modules.get(i));
+                }
+                List<MavenProject> ancestors = new ArrayList<>();
+                for (int parent = (i - 1) / 2; i > 0 && parent >= 0; parent = parent > 0 ? (parent - 1) / 2 : -1) {
+                    ancestors.add(0, modules.get(parent));
+                    downstream.get(parent).add(modules.get(i));
+                }
+                upstream.add(ancestors);
+            }
+        }
+
+        @Override
+        public List<MavenProject> getSortedProjects() {
+            return projects;
+        }
+
+        @Override
+        public List<MavenProject> getDownstreamProjects(MavenProject project, boolean transitive) {
+            Integer index = moduleIndexes.get(project);
+            return index != null ? (transitive ? downstream : directDownstream).get(index) : Collections.emptyList();
+        }
+
+        @Override
+        public List<MavenProject> getUpstreamProjects(MavenProject project, boolean transitive) {
+            Integer index = moduleIndexes.get(project);
+            return index != null ? (transitive ? upstream : directUpstream).get(index) : Collections.emptyList();
+        }
+    }
+}
@@ -28,6 +28,8 @@ import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.vackosar.gitflowincrementalbuild.control.Metrics;
+import com.vackosar.gitflowincrementalbuild.control.PathPattern;
 import com.vackosar.gitflowincrementalbuild.control.Property;
 import com.vackosar.gitflowincrementalbuild.control.Property.ValueWithOriginContext;
 
@@ -47,12 +49,21 @@ public class Configuration {
     public final boolean fetchReferenceBranch;
     public final String baseBranch;
     public final boolean fetchBaseBranch;
+    public final int fetchTimeout;
+    public final int fetchMaxAge;
     public final boolean useJschAgentProxy;
+    public final int credentialsCacheTtl;
     public final boolean compareToMergeBase;
+    public final boolean deepenShallowClone;
+    public final boolean cacheBranchDiff;
+    public final boolean reuseAcrossBuilds;
     public final boolean uncommitted;
     public final boolean untracked;
-    public final Optional<Predicate<String>> excludePathRegex;
-    public final Optional<Predicate<String>> includePathRegex;
+    public final boolean fastStatus;
+    public final boolean watchWorkingTree;
+    public final boolean parallelUntracked;
+    public final Optional<PathPattern> excludePathRegex;
+    public final Optional<PathPattern> includePathRegex;
 
     public final boolean buildAll;
     public final boolean buildAllIfNoChanges;
@@ -67,6 +78,11 @@ public class Configuration {
     public final boolean failOnMissingGitDir;
     public final boolean failOnError;
     public final Optional<Path> logImpactedTo;
+    public final boolean logMetrics;
+    public final Optional<Path> logMetricsTo;
+
+    /** Collects the metrics of this build (regardless of {@link #logMetrics} and {@link #logMetricsTo}). */
+    public final Metrics metrics = new Metrics();
 
     private Logger logger = LoggerFactory.getLogger(Configuration.class);
 
@@ -78,6 +94,7 @@ public class Configuration {
         Properties projectProperties = properties[0];
         Properties pluginProperties = properties[1];
 
+        // resolved individually so that a disabled GIB does not log any warnings regarding the other (deprecated or invalid) properties
         help = Boolean.parseBoolean(Property.help.getValue(pluginProperties, projectProperties));
         disable = Boolean.parseBoolean(Property.disable.getValue(pluginProperties, projectProperties));
         if (disable) { // abort parsing any other config properties if not enabled at all
@@ -90,10 +107,19 @@ public class Configuration {
             fetchReferenceBranch = false;
             baseBranch = null;
             fetchBaseBranch = false;
+            fetchTimeout = 0;
+            fetchMaxAge = -1;
             useJschAgentProxy = false;
+            credentialsCacheTtl = 0;
             compareToMergeBase = false;
+            deepenShallowClone = false;
+            cacheBranchDiff = false;
+            reuseAcrossBuilds = false;
             uncommitted = false;
             untracked = false;
+            fastStatus = false;
+            watchWorkingTree = false;
+            parallelUntracked = false;
             excludePathRegex = null;
             includePathRegex = null;
 
@@ -118,55 +144,69 @@ public class Configuration {
             failOnMissingGitDir = false;
             failOnError = false;
             logImpactedTo = null;
+            logMetrics = false;
+            logMetricsTo = null;
 
             return;
         }
 
         Property.checkProperties(pluginProperties, projectProperties);
+        Map<Property, ValueWithOriginContext> values = Property.resolveAll(pluginProperties, projectProperties);
 
-        disableIfBranchRegex = compileOptionalPatternPredicate(Property.disableIfBranchRegex, pluginProperties, projectProperties);
+        disableIfBranchRegex = compileOptionalPatternPredicate(Property.disableIfBranchRegex, values);
 
         // change detection config
 
-        disableBranchComparison = Boolean.parseBoolean(Property.disableBranchComparison.getValue(pluginProperties, projectProperties));
-        referenceBranch = Property.referenceBranch.getValue(pluginProperties, projectProperties);
-        fetchReferenceBranch = Boolean.parseBoolean(Property.fetchReferenceBranch.getValue(pluginProperties, projectProperties));
-        baseBranch = Property.baseBranch.getValue(pluginProperties, projectProperties);
-        fetchBaseBranch = Boolean.parseBoolean(Property.fetchBaseBranch.getValue(pluginProperties, projectProperties));
-        useJschAgentProxy = Boolean.parseBoolean(Property.useJschAgentProxy.getValue(pluginProperties, projectProperties));
-        compareToMergeBase = Boolean.parseBoolean(Property.compareToMergeBase.getValue(pluginProperties, projectProperties));
-        uncommitted = Boolean.parseBoolean(Property.uncommitted.getValue(pluginProperties, projectProperties));
-        untracked = Boolean.parseBoolean(Property.untracked.getValue(pluginProperties, projectProperties));
-        excludePathRegex = compileOptionalPatternPredicate(Property.excludePathRegex, pluginProperties, projectProperties);
-        includePathRegex = compileOptionalPatternPredicate(Property.includePathRegex, pluginProperties, projectProperties);
+        disableBranchComparison = Boolean.parseBoolean(Property.disableBranchComparison.getValue(values));
+        referenceBranch = Property.referenceBranch.getValue(values);
+        fetchReferenceBranch = Boolean.parseBoolean(Property.fetchReferenceBranch.getValue(values));
+        baseBranch = Property.baseBranch.getValue(values);
+        fetchBaseBranch = Boolean.parseBoolean(Property.fetchBaseBranch.getValue(values));
+        fetchTimeout = parseInt(Property.fetchTimeout, values);
+        fetchMaxAge = parseInt(Property.fetchMaxAge, values);
+        useJschAgentProxy = Boolean.parseBoolean(Property.useJschAgentProxy.getValue(values));
+        credentialsCacheTtl = parseInt(Property.credentialsCacheTtl, values);
+        compareToMergeBase = Boolean.parseBoolean(Property.compareToMergeBase.getValue(values));
+        deepenShallowClone = Boolean.parseBoolean(Property.deepenShallowClone.getValue(values));
+        cacheBranchDiff = Boolean.parseBoolean(Property.cacheBranchDiff.getValue(values));
+        reuseAcrossBuilds = Boolean.parseBoolean(Property.reuseAcrossBuilds.getValue(values));
+        uncommitted = Boolean.parseBoolean(Property.uncommitted.getValue(values));
+        untracked = Boolean.parseBoolean(Property.untracked.getValue(values));
+        fastStatus = Boolean.parseBoolean(Property.fastStatus.getValue(values));
+        watchWorkingTree = Boolean.parseBoolean(Property.watchWorkingTree.getValue(values));
+        parallelUntracked = Boolean.parseBoolean(Property.parallelUntracked.getValue(values));
+        excludePathRegex = compileOptionalPathPattern(Property.excludePathRegex, values);
+        includePathRegex = compileOptionalPathPattern(Property.includePathRegex, values);
 
         // build config
 
-        buildAll = Boolean.parseBoolean(Property.buildAll.getValue(pluginProperties, projectProperties));
-        buildAllIfNoChanges = Boolean.parseBoolean(Property.buildAllIfNoChanges.getValue(pluginProperties, projectProperties));
+        buildAll = Boolean.parseBoolean(Property.buildAll.getValue(values));
+        buildAllIfNoChanges = Boolean.parseBoolean(Property.buildAllIfNoChanges.getValue(values));
         buildDownstream = isBuildStreamActive(
-                Property.buildDownstream, pluginProperties, projectProperties, session, MavenExecutionRequest.REACTOR_MAKE_DOWNSTREAM);
-        buildUpstreamMode = parseBuildUpstreamMode(session, pluginProperties, projectProperties);
-        skipTestsForUpstreamModules = Boolean.parseBoolean(Property.skipTestsForUpstreamModules.getValue(pluginProperties, projectProperties));
+                Property.buildDownstream, values, session, MavenExecutionRequest.REACTOR_MAKE_DOWNSTREAM);
+        buildUpstreamMode = parseBuildUpstreamMode(session, values);
+        skipTestsForUpstreamModules = Boolean.parseBoolean(Property.skipTestsForUpstreamModules.getValue(values));
 
-        argsForUpstreamModules = parseDelimited(Property.argsForUpstreamModules.getValue(pluginProperties, projectProperties), " ")
+        argsForUpstreamModules = parseDelimited(Property.argsForUpstreamModules.getValue(values), " ")
                 .map(Configuration::keyValueStringToEntry)
                 .collect(collectingAndThen(toLinkedMap(), Collections::unmodifiableMap));
 
-        forceBuildModules = parseDelimited(Property.forceBuildModules.getValue(pluginProperties, projectProperties), ",")
+        forceBuildModules = parseDelimited(Property.forceBuildModules.getValue(values), ",")
                 .map(str -> compilePattern(str, Property.forceBuildModules))
                 .collect(collectingAndThen(toList(), Collections::unmodifiableList));
 
-        excludeDownstreamModulesPackagedAs = parseDelimited(Property.excludeDownstreamModulesPackagedAs.getValue(pluginProperties, projectProperties), ",")
+        excludeDownstreamModulesPackagedAs = parseDelimited(Property.excludeDownstreamModulesPackagedAs.getValue(values), ",")
                 .collect(collectingAndThen(toList(), Collections::unmodifiableList));
 
-        disableSelectedProjectsHandling = Boolean.parseBoolean(Property.disableSelectedProjectsHandling.getValue(pluginProperties, projectProperties));
+        disableSelectedProjectsHandling = Boolean.parseBoolean(Property.disableSelectedProjectsHandling.getValue(values));
 
         // error handling config
 
-        failOnMissingGitDir = Boolean.parseBoolean(Property.failOnMissingGitDir.getValue(pluginProperties, projectProperties));
-        failOnError = Boolean.parseBoolean(Property.failOnError.getValue(pluginProperties, projectProperties));
-        logImpactedTo = Property.logImpactedTo.getValueOpt(pluginProperties, projectProperties).map(Paths::get);
+        failOnMissingGitDir = Boolean.parseBoolean(Property.failOnMissingGitDir.getValue(values));
+        failOnError = Boolean.parseBoolean(Property.failOnError.getValue(values));
+        logImpactedTo = Property.logImpactedTo.getValueOpt(values).map(Paths::get);
+        logMetrics = Boolean.parseBoolean(Property.logMetrics.getValue(values));
+        logMetricsTo = Property.logMetricsTo.getValueOpt(values).map(Paths::get);
     }
 
     /**
@@ -216,11 +256,20 @@ public class Configuration {
                 .orElseGet(Properties::new);
     }
 
-    private static BuildUpstreamMode parseBuildUpstreamMode(MavenSession session, Properties pluginProperties, Properties projectProperties) {
-        if (!isBuildStreamActive(Property.buildUpstream, pluginProperties, projectProperties, session, MavenExecutionRequest.REACTOR_MAKE_UPSTREAM)) {
+    private static int parseInt(Property property, Map<Property, ValueWithOriginContext> values) {
+        ValueWithOriginContext propertyValue = property.getValueWithOriginContext(values);
+        try {
+            return Integer.parseInt(propertyValue.value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("GIB property '" + property.prefixedName() + "' defines an invalid number: " + propertyValue, e);
+        }
+    }
+
+    private static BuildUpstreamMode parseBuildUpstreamMode(MavenSession session, Map<Property, ValueWithOriginContext> values) {
+        if (!isBuildStreamActive(Property.buildUpstream, values, session, MavenExecutionRequest.REACTOR_MAKE_UPSTREAM)) {
             return BuildUpstreamMode.NONE;
         }
-        ValueWithOriginContext propertyValue = Property.buildUpstreamMode.getValueWithOriginContext(pluginProperties, projectProperties);
+        ValueWithOriginContext propertyValue = Property.buildUpstreamMode.getValueWithOriginContext(values);
         try {
             return BuildUpstreamMode.valueOf(propertyValue.value.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -228,9 +277,9 @@ public class Configuration {
         }
     }
 
-    private static boolean isBuildStreamActive(Property property, Properties pluginProperties, Properties projectProperties, MavenSession session,
+    private static boolean isBuildStreamActive(Property property, Map<Property, ValueWithOriginContext> values, MavenSession session,
             String expectedMakeBehavior) {
-        ValueWithOriginContext propertyValue = property.getValueWithOriginContext(pluginProperties, projectProperties);
+        ValueWithOriginContext propertyValue = property.getValueWithOriginContext(values);
         switch (propertyValue.value) {
             case "derived":
                 return isMakeBehaviourActive(expectedMakeBehavior, session);
@@ -273,12 +322,24 @@ public class Configuration {
         }
     }
 
-    private static Optional<Predicate<String>> compileOptionalPatternPredicate(Property property, Properties pluginProperties, Properties projectProperties) {
-        return property.getValueOpt(pluginProperties, projectProperties)
+    private static Optional<Predicate<String>> compileOptionalPatternPredicate(Property property, Map<Property, ValueWithOriginContext> values) {
+        return property.getValueOpt(values)
                 .map(patternString -> compilePattern(patternString, property))
                 .map(Pattern::asPredicate);
     }
 
+    private static Optional<PathPattern> compileOptionalPathPattern(Property property, Map<Property, ValueWithOriginContext> values) {
+        return property.getValueOpt(values)
+                .map(patternString -> {
+                    try {
+                        return PathPattern.compile(patternString);
+                    } catch (PatternSyntaxException e) {
+                        // just using prefixedName() because it is too laborious get ValueWithOriginContext here
+                        throw new IllegalArgumentException("GIB property '" + property.prefixedName() + "' defines an invalid pattern string", e);
+                    }
+                });
+    }
+
     public static enum BuildUpstreamMode {
         NONE,
         CHANGED,
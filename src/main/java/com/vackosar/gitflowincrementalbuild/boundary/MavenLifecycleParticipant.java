@@ -2,6 +2,9 @@ package com.vackosar.gitflowincrementalbuild.boundary;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -64,6 +67,11 @@ public class MavenLifecycleParticipant extends AbstractMavenLifecycleParticipant
             perform(config);
         } finally {
             gitProvider.close();
+            config.metrics.stop();
+            if (config.logMetrics) {
+                logger.info("gitflow-incremental-builder metrics:\n{}", config.metrics.toTable());
+            }
+            config.logMetricsTo.ifPresent(logFilePath -> writeMetricsLogFile(config, logFilePath));
         }
     }
 
@@ -89,6 +97,16 @@ public class MavenLifecycleParticipant extends AbstractMavenLifecycleParticipant
         logger.info("gitflow-incremental-builder exiting...");
     }
 
+    private void writeMetricsLogFile(Configuration config, Path logFilePath) {
+        logger.debug("Writing metrics to {}", logFilePath);
+        try {
+            Files.write(logFilePath, config.metrics.toJson().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // don't fail (or hide the actual failure of) the build just because of the metrics
+            logger.warn("Failed to write metrics to " + logFilePath, e);
+        }
+    }
+
     private boolean isDisabledForBranch(Configuration config) {
         return config.disableIfBranchRegex.map(predicate -> {
             try {
@@ -0,0 +1,210 @@
+package com.vackosar.gitflowincrementalbuild.boundary;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Assigns an integer id to each project (its index in {@link org.apache.maven.execution.MavenSession#getAllProjects()}) so that sets of projects can be
+ * represented as {@link BitSet}s. Also holds the (lazily calculated) downstream and upstream projects of each project as a {@link BitSet} per project
+ * ("row"), so that the downstream/upstream projects of many projects can be combined via {@link BitSet#or(BitSet)}.
+ * <p>
+ * The transitive rows are calculated from the <i>direct</i> neighbours of each project and the (memoized) transitive rows of those neighbours, instead of
+ * letting Maven collect the transitive projects for each project individually.
+ * </p>
+ */
+class ReactorIndex {
+
+    private final List<MavenProject> projects;
+    private final Map<MavenProject, Integer> ids;
+    private final BitSet[] downstreamRows;
+    private final BitSet[] upstreamRows;
+    /** Transitive downstream projects (excluding the project itself), unlike {@link #downstreamRows} without any filtering. */
+    private final BitSet[] transitiveDownstreamRows;
+
+    /**
+     * @param projects all projects in reactor order
+     */
+    ReactorIndex(List<MavenProject> projects) {
+        this(projects, new BitSet[projects.size()], new BitSet[projects.size()]);
+    }
+
+    /**
+     * @param projects all projects in reactor order
+     * @param downstreamRows the downstream rows of a previous index for the very same (but potentially re-created) projects
+     * @param upstreamRows the upstream rows of a previous index for the very same (but potentially re-created) projects
+     */
+    ReactorIndex(List<MavenProject> projects, BitSet[] downstreamRows, BitSet[] upstreamRows) {
+        if (downstreamRows.length != projects.size() || upstreamRows.length != projects.size()) {
+            throw new IllegalArgumentException("Expected " + projects.size() + " downstream and upstream rows but got "
+                    + downstreamRows.length + " and " + upstreamRows.length);
+        }
+        this.projects = projects;
+        this.downstreamRows = downstreamRows;
+        this.upstreamRows = upstreamRows;
+        transitiveDownstreamRows = new BitSet[projects.size()];
+        ids = new IdentityHashMap<>(projects.size() * 2);
+        for (int i = 0; i < projects.size(); i++) {
+            ids.put(projects.get(i), i);
+        }
+    }
+
+    /**
+     * @param project a project
+     * @return the id of the given project
+     * @throws IllegalArgumentException if the project is unknown
+     */
+    int getId(MavenProject project) {
+        Integer id = ids.get(project);
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown project: " + project);
+        }
+        return id;
+    }
+
+    /**
+     * @param projects some projects
+     * @return a new {@link BitSet} with the ids of the given projects
+     */
+    BitSet toBitSet(Collection<MavenProject> projects) {
+        BitSet bitSet = new BitSet(this.projects.size());
+        projects.forEach(proj -> bitSet.set(getId(proj)));
+        return bitSet;
+    }
+
+    /**
+     * @param bitSet the ids of some projects
+     * @return the respective projects in reactor order
+     */
+    Set<MavenProject> toProjects(BitSet bitSet) {
+        Set<MavenProject> result = new LinkedHashSet<>();
+        bitSet.stream().forEach(id -> result.add(projects.get(id)));
+        return result;
+    }
+
+    /**
+     * @param project a project
+     * @return the previously stored downstream row of the given project (including the project itself) or {@code null} if there is none (yet)
+     */
+    BitSet getDownstreamRow(MavenProject project) {
+        return downstreamRows[getId(project)];
+    }
+
+    /**
+     * @param project a project
+     * @param row the downstream row of the given project (including the project itself), must not be modified afterwards
+     */
+    void putDownstreamRow(MavenProject project, BitSet row) {
+        downstreamRows[getId(project)] = row;
+    }
+
+    /**
+     * @return all downstream rows (some of them might be {@code null}), for reuse in a subsequent build
+     */
+    BitSet[] getDownstreamRows() {
+        return downstreamRows;
+    }
+
+    /**
+     * @param project a project
+     * @return the previously stored upstream row of the given project (excluding the project itself) or {@code null} if there is none (yet)
+     */
+    BitSet getUpstreamRow(MavenProject project) {
+        return upstreamRows[getId(project)];
+    }
+
+    /**
+     * @param project a project
+     * @param row the upstream row of the given project (excluding the project itself), must not be modified afterwards
+     */
+    void putUpstreamRow(MavenProject project, BitSet row) {
+        upstreamRows[getId(project)] = row;
+    }
+
+    /**
+     * @return all upstream rows (some of them might be {@code null}), for reuse in a subsequent build
+     */
+    BitSet[] getUpstreamRows() {
+        return upstreamRows;
+    }
+
+    /**
+     * @param project a project
+     * @param graph the dependency graph of the reactor
+     * @return the same projects as {@link ProjectDependencyGraph#getDownstreamProjects(MavenProject, boolean) getDownstreamProjects(project, true)},
+     *          must not be modified
+     */
+    BitSet getTransitiveDownstreamRow(MavenProject project, ProjectDependencyGraph graph) {
+        return getTransitiveRow(project, graph, transitiveDownstreamRows, ProjectDependencyGraph::getDownstreamProjects);
+    }
+
+    /**
+     * Returns the upstream row of the given project, calculating and storing it if there is none yet.
+     *
+     * @param project a project
+     * @param graph the dependency graph of the reactor
+     * @return the same projects as {@link ProjectDependencyGraph#getUpstreamProjects(MavenProject, boolean) getUpstreamProjects(project, true)}, must
+     *          not be modified
+     */
+    BitSet getTransitiveUpstreamRow(MavenProject project, ProjectDependencyGraph graph) {
+        return getTransitiveRow(project, graph, upstreamRows, ProjectDependencyGraph::getUpstreamProjects);
+    }
+
+    private BitSet getTransitiveRow(MavenProject project, ProjectDependencyGraph graph, BitSet[] rows, Neighbours neighbours) {
+        int id = getId(project);
+        if (rows[id] != null) {
+            return rows[id];
+        }
+        if (graph.getSortedProjects().size() != projects.size()) {
+            // filtered graph (e.g. via -pl): the direct neighbours would not contain the deselected projects in between
+            rows[id] = toBitSet(neighbours.get(graph, project, true));
+            return rows[id];
+        }
+        // depth-first, each row is completed after the rows of all its neighbours (so in reverse topological order), without recursion
+        Deque<MavenProject> pending = new ArrayDeque<>();
+        Map<MavenProject, List<MavenProject>> pendingNeighbours = new IdentityHashMap<>();
+        pending.push(project);
+        while (!pending.isEmpty()) {
+            MavenProject current = pending.peek();
+            int currentId = getId(current);
+            if (rows[currentId] != null) {
+                pending.pop();
+                continue;
+            }
+            List<MavenProject> directNeighbours = pendingNeighbours.computeIfAbsent(current, proj -> neighbours.get(graph, proj, false));
+            boolean complete = true;
+            for (MavenProject neighbour : directNeighbours) {
+                if (rows[getId(neighbour)] == null) {
+                    pending.push(neighbour);
+                    complete = false;
+                }
+            }
+            if (complete) {
+                BitSet row = new BitSet(projects.size());
+                for (MavenProject neighbour : directNeighbours) {
+                    int neighbourId = getId(neighbour);
+                    row.set(neighbourId);
+                    row.or(rows[neighbourId]);
+                }
+                rows[currentId] = row;
+                pending.pop();
+                pendingNeighbours.remove(current);
+            }
+        }
+        return rows[id];
+    }
+
+    @FunctionalInterface
+    private interface Neighbours {
+        List<MavenProject> get(ProjectDependencyGraph graph, MavenProject project, boolean transitive);
+    }
+}
@@ -7,10 +7,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -18,10 +22,10 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -31,6 +35,7 @@ import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.MavenExecutionRequest;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
 import org.apache.maven.model.Model;
 import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.PluginParameterExpressionEvaluator;
@@ -44,6 +49,9 @@ import org.slf4j.LoggerFactory;
 
 import com.vackosar.gitflowincrementalbuild.boundary.Configuration.BuildUpstreamMode;
 import com.vackosar.gitflowincrementalbuild.control.ChangedProjects;
+import com.vackosar.gitflowincrementalbuild.control.Metrics;
+import com.vackosar.gitflowincrementalbuild.control.Metrics.Count;
+import com.vackosar.gitflowincrementalbuild.control.Metrics.Phase;
 
 @Singleton
 @Named
@@ -59,17 +67,44 @@ class UnchangedProjectsRemover {
 
     @Inject private ChangedProjects changedProjects;
 
-    private final Map<MavenProject, Set<MavenProject>> downstreamCache = new HashMap<>();
+    /** Only present during {@link #act(Configuration)}. */
+    private ReactorIndex reactorIndex;
+    /** Only present during {@link #act(Configuration)} (and lazily initialized): importing projects by BOM coordinates. */
+    private Map<String, List<MavenProject>> bomImporters;
+    /** Only present during {@link #act(Configuration)} (and lazily initialized): ids of the projects that are never added as downstream projects. */
+    private BitSet excludedDownstreamIds;
+
+    /** Fingerprint of the reactor of the previous build, see {@link Configuration#reuseAcrossBuilds}. */
+    private String reusableDownstreamFingerprint;
+    /** Downstream rows of the {@link ReactorIndex} of the previous build. */
+    private BitSet[] reusableDownstreamRows;
+    /** Upstream rows of the {@link ReactorIndex} of the previous build. */
+    private BitSet[] reusableUpstreamRows;
 
     void act(Configuration config) throws GitAPIException, IOException {
+        String fingerprint = config.reuseAcrossBuilds ? ReactorFingerprint.of(config) : null;
+        List<MavenProject> allProjects = config.mavenSession.getAllProjects();
+        if (fingerprint != null && fingerprint.equals(reusableDownstreamFingerprint)) {
+            logger.debug("Reusing downstream and upstream projects of previous build.");
+            reactorIndex = new ReactorIndex(allProjects, reusableDownstreamRows, reusableUpstreamRows);
+        } else {
+            reactorIndex = new ReactorIndex(allProjects);
+        }
         try {
             doAct(config);
         } finally {
+            reusableDownstreamFingerprint = fingerprint;
+            // note: the rows don't reference any MavenProject since those are re-created for each build
+            reusableDownstreamRows = fingerprint != null ? reactorIndex.getDownstreamRows() : null;
+            reusableUpstreamRows = fingerprint != null ? reactorIndex.getUpstreamRows() : null;
             // don't be a memory hog
-            downstreamCache.clear();
+            reactorIndex = null;
+            bomImporters = null;
+            excludedDownstreamIds = null;
         }
     }
 
+    @SuppressWarnings("try")
     private void doAct(Configuration config) throws GitAPIException, IOException {
         LazyMavenProjectComparator projectComparator = new LazyMavenProjectComparator(config.mavenSession);
         // ensure to write logfile for impaced (even if just empty)
@@ -108,16 +143,19 @@ class UnchangedProjectsRemover {
         }
         logProjects(changed, "Changed Artifacts:", projectComparator, config.mavenSession);
 
-        final Set<MavenProject> impacted = calculateImpactedProjects(selected, changed, config);
+        try (Metrics.Stopwatch stopwatch = config.metrics.time(Phase.GRAPH_EXPANSION)) {
+            final Set<MavenProject> impacted = calculateImpactedProjects(selected, changed, config);
+            config.metrics.set(Count.IMPACTED_MODULES, impacted.size());
 
-        config.logImpactedTo.ifPresent(logFilePath -> writeImpactedLogFile(impacted, logFilePath, projectComparator));
+            config.logImpactedTo.ifPresent(logFilePath -> writeImpactedLogFile(impacted, logFilePath, projectComparator));
 
-        if (!config.buildAll) {
-            modifyProjectList(selected, changed, impacted, projectComparator, config);
-        } else {
-            config.mavenSession.getProjects().stream()
-                    .filter(proj -> !impacted.contains(proj))
-                    .forEach(proj -> applyUpstreamModuleArgs(proj, config));
+            if (!config.buildAll) {
+                modifyProjectList(selected, changed, impacted, projectComparator, config);
+            } else {
+                config.mavenSession.getProjects().stream()
+                        .filter(proj -> !impacted.contains(proj))
+                        .forEach(proj -> applyUpstreamModuleArgs(proj, config));
+            }
         }
     }
 
@@ -134,9 +172,7 @@ class UnchangedProjectsRemover {
         if (!selected.isEmpty()) {
             logger.info("No changed artifacts detected: Building just explicitly selected projects (and their upstream and/or downstream, if requested).");
             // note: "only selected" case was handled before, so we have up- and/or downstream projects in the session as well
-            Set<MavenProject> selectedAndDownstream = selected.stream()
-                    .flatMap(proj -> streamProjectWithDownstreamProjects(proj, config))
-                    .collect(Collectors.toSet());
+            Set<MavenProject> selectedAndDownstream = reactorIndex.toProjects(getProjectsWithDownstreamProjects(selected, config));
             // handle upstream
             if (Configuration.isMakeBehaviourActive(MavenExecutionRequest.REACTOR_MAKE_UPSTREAM, config.mavenSession)) {
                 if (config.buildUpstreamMode == BuildUpstreamMode.NONE) {
@@ -172,13 +208,14 @@ class UnchangedProjectsRemover {
     }
 
     private Set<MavenProject> calculateImpactedProjects(Set<MavenProject> selected, Set<MavenProject> changed, Configuration config) {
-        Stream<MavenProject> impacted = selected.isEmpty() ? changed.stream() : selected.stream();
+        Set<MavenProject> impacted = selected.isEmpty() ? changed : selected;
         // note: buildAll *always* needs impacted incl. downstream, otherwise applyNotImpactedModuleArgs() might disable tests etc. for downstream modules!
         if (config.buildAll || config.buildDownstream) {
-            impacted = impacted.flatMap(proj -> streamProjectWithDownstreamProjects(proj, config));
+            impacted = reactorIndex.toProjects(getProjectsWithDownstreamProjects(impacted, config));
         }
-        return impacted
-                .filter(config.mavenSession.getProjects()::contains)   // not deselected
+        Set<MavenProject> sessionProjects = new HashSet<>(config.mavenSession.getProjects());
+        return impacted.stream()
+                .filter(sessionProjects::contains)   // not deselected
                 .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
@@ -235,14 +272,18 @@ class UnchangedProjectsRemover {
             default:
                 throw new IllegalStateException("Unsupported BuildUpstreamMode: " + buildUpstreamMode);
         }
-        Set<MavenProject> upstreamProjects = upstreamRequiringProjects.stream()
-                .flatMap(proj -> streamUpstreamProjects(proj, config.mavenSession))
-                .filter(proj -> !impacted.contains(proj))
-                .peek(proj -> applyUpstreamModuleArgs(proj, config))
-                .collect(Collectors.toCollection(LinkedHashSet::new));
-
+        BitSet impactedIds = reactorIndex.toBitSet(impacted);
+        BitSet upstreamIds = new BitSet();
+        upstreamRequiringProjects.forEach(proj -> upstreamIds.or(getUpstreamProjects(proj, config.mavenSession)));
+        upstreamIds.andNot(impactedIds);
+        config.metrics.set(Count.UPSTREAM_MODULES, upstreamIds.cardinality());
+        reactorIndex.toProjects(upstreamIds).forEach(proj -> applyUpstreamModuleArgs(proj, config));
+
+        BitSet rebuildIds = impactedIds;
+        rebuildIds.or(upstreamIds);
+        // single scan to retain the order of the session
         return config.mavenSession.getProjects().stream()
-                .filter(proj -> impacted.contains(proj) || upstreamProjects.contains(proj))
+                .filter(proj -> rebuildIds.get(reactorIndex.getId(proj)))
                 .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
@@ -287,56 +328,132 @@ class UnchangedProjectsRemover {
         logger.info("------------------------------------------------------------------------");
     }
 
-    private Stream<MavenProject> streamProjectWithDownstreamProjects(MavenProject project, Configuration config) {
-        // note: not using computeIfAbsent() here since it would break recursive invocations with ConcurrentModificationException
-        Set<MavenProject> downstream = downstreamCache.get(project);
+    private BitSet getProjectsWithDownstreamProjects(Collection<MavenProject> projects, Configuration config) {
+        BitSet result = new BitSet();
+        projects.forEach(proj -> result.or(getProjectWithDownstreamProjects(proj, config)));
+        return result;
+    }
+
+    private BitSet getProjectWithDownstreamProjects(MavenProject project, Configuration config) {
+        // note: the row is stored only after it is complete, the BOM handling below might recurse into this method for other projects
+        BitSet downstream = reactorIndex.getDownstreamRow(project);
         if (downstream == null) {
-            downstream = Stream
-                    .concat(Stream.of(project),
-                            config.mavenSession.getProjectDependencyGraph().getDownstreamProjects(project, true)
-                                    .stream().filter(proj -> isDownstreamModuleNotExcluded(proj, config)))
-                    .collect(Collectors.toCollection(LinkedHashSet::new));
-            if (PCKG_POM.equals(project.getPackaging())) {    // performance hint: bomArtifactIdRegex or similar could speed things up
-                downstream.addAll(findBOMDownstreamProjects(project, downstream, config));
+            downstream = (BitSet) reactorIndex.getTransitiveDownstreamRow(project, config.mavenSession.getProjectDependencyGraph()).clone();
+            downstream.andNot(getExcludedDownstreamIds(config));
+            downstream.set(reactorIndex.getId(project));
+            if (PCKG_POM.equals(project.getPackaging())) {
+                downstream.or(findBOMDownstreamProjects(project, downstream, config));
             }
-            downstreamCache.put(project, downstream);
+            reactorIndex.putDownstreamRow(project, downstream);
         }
-        return downstream.stream();
+        return downstream;
     }
 
-    private Set<MavenProject> findBOMDownstreamProjects(MavenProject potentialBOMProject, Set<MavenProject> downstream, Configuration config) {
-        return config.mavenSession.getProjects().stream()
-                .filter(proj -> !downstream.contains(proj)) // optimization
+    private BitSet findBOMDownstreamProjects(MavenProject potentialBOMProject, BitSet downstream, Configuration config) {
+        BitSet bomDownstream = new BitSet();
+        getBOMImporters(config).getOrDefault(toCoordinates(potentialBOMProject), Collections.emptyList()).stream()
+                .filter(proj -> !downstream.get(reactorIndex.getId(proj))) // optimization
                 .filter(proj -> isDownstreamModuleNotExcluded(proj, config))
-                .filter(proj -> Optional.ofNullable(proj.getOriginalModel())    // >original< model is crucial since BOM deps are gone in effective model
+                .forEach(proj -> bomDownstream.or(getProjectWithDownstreamProjects(proj, config))); // (indirect) recursion!
+        return bomDownstream;
+    }
+
+    private BitSet getExcludedDownstreamIds(Configuration config) {
+        if (excludedDownstreamIds == null) {
+            excludedDownstreamIds = reactorIndex.toBitSet(config.mavenSession.getAllProjects().stream()
+                    .filter(proj -> !isDownstreamModuleNotExcluded(proj, config))
+                    .collect(Collectors.toList()));
+        }
+        return excludedDownstreamIds;
+    }
+
+    private Map<String, List<MavenProject>> getBOMImporters(Configuration config) {
+        if (bomImporters == null) {
+            bomImporters = new HashMap<>();
+            for (MavenProject proj : config.mavenSession.getProjects()) {
+                // >original< model is crucial since BOM deps are gone in effective model
+                List<Dependency> managedDependencies = Optional.ofNullable(proj.getOriginalModel())
                         .map(Model::getDependencyManagement)
-                        .map(depMgtm -> depMgtm.getDependencies().stream().anyMatch(dep -> isBOMImport(dep, potentialBOMProject, proj, config)))
-                        .orElse(false))
-                .flatMap(proj -> streamProjectWithDownstreamProjects(proj, config)) // (indirect) recursion!
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+                        .map(DependencyManagement::getDependencies)
+                        .orElse(Collections.emptyList());
+                if (managedDependencies.isEmpty()) {
+                    continue;
+                }
+                LazyExpressionEvaluator evaluator = new LazyExpressionEvaluator(config.mavenSession, proj);
+                managedDependencies.stream()
+                        .filter(dep -> isBOMImport(dep, evaluator))
+                        .map(dep -> toCoordinates(evaluator.evaluate(dep.getGroupId()), evaluator.evaluate(dep.getArtifactId()),
+                                evaluator.evaluate(dep.getVersion())))
+                        .distinct()
+                        .forEach(coordinates -> bomImporters.computeIfAbsent(coordinates, c -> new ArrayList<>()).add(proj));
+            }
+        }
+        return bomImporters;
     }
 
     private boolean isDownstreamModuleNotExcluded(MavenProject proj, Configuration config) {
         return !config.excludeDownstreamModulesPackagedAs.contains(proj.getPackaging());
     }
 
-    private boolean isBOMImport(Dependency dependency, MavenProject potentialBOMProject, MavenProject depDefiningProject, Configuration config) {
-        LazyExpressionEvaluator evaluator = new LazyExpressionEvaluator(config.mavenSession, depDefiningProject);
+    private boolean isBOMImport(Dependency dependency, LazyExpressionEvaluator evaluator) {
         return Objects.equals(evaluator.evaluate(dependency.getType()), PCKG_POM)
-                && Objects.equals(evaluator.evaluate(dependency.getScope()), Artifact.SCOPE_IMPORT)
-                && Objects.equals(evaluator.evaluate(dependency.getArtifactId()), potentialBOMProject.getArtifactId())
-                && Objects.equals(evaluator.evaluate(dependency.getGroupId()), potentialBOMProject.getGroupId())
-                && Objects.equals(evaluator.evaluate(dependency.getVersion()), potentialBOMProject.getVersion());
+                && Objects.equals(evaluator.evaluate(dependency.getScope()), Artifact.SCOPE_IMPORT);
+    }
+
+    private static String toCoordinates(MavenProject project) {
+        return toCoordinates(project.getGroupId(), project.getArtifactId(), project.getVersion());
+    }
+
+    private static String toCoordinates(String groupId, String artifactId, String version) {
+        return groupId + ':' + artifactId + ':' + version;
     }
 
-    private Stream<MavenProject> streamUpstreamProjects(MavenProject project, MavenSession mavenSession) {
-        return mavenSession.getProjectDependencyGraph().getUpstreamProjects(project, true).stream();
+    private BitSet getUpstreamProjects(MavenProject project, MavenSession mavenSession) {
+        return reactorIndex.getTransitiveUpstreamRow(project, mavenSession.getProjectDependencyGraph());
     }
 
     private boolean matchesAny(final String str, Collection<Pattern> patterns) {
         return patterns.stream().anyMatch(pattern -> pattern.matcher(str).matches());
     }
 
+    /**
+     * Creates a fingerprint of everything that the downstream projects depend on: the poms of all projects (path, timestamp, size), their coordinates and
+     * packaging, the selected projects and the relevant parts of the request and configuration.
+     * <p>
+     * Note: changes in parent poms from outside the reactor or in settings.xml are <i>not</i> covered.
+     * </p>
+     */
+    private static class ReactorFingerprint {
+
+        static String of(Configuration config) {
+            MavenSession session = config.mavenSession;
+            Map<MavenProject, Integer> indexes = new IdentityHashMap<>();
+            StringBuilder fingerprint = new StringBuilder();
+            for (MavenProject project : session.getAllProjects()) {
+                indexes.put(project, indexes.size());
+                File pom = project.getFile();
+                fingerprint.append(pom);
+                if (pom != null) {
+                    fingerprint.append('@').append(pom.lastModified()).append('/').append(pom.length());
+                }
+                fingerprint.append('|').append(project.getGroupId())
+                        .append(':').append(project.getArtifactId())
+                        .append(':').append(project.getVersion())
+                        .append(':').append(project.getPackaging())
+                        .append('\n');
+            }
+            fingerprint.append("projects: ")
+                    .append(session.getProjects().stream().map(proj -> String.valueOf(indexes.get(proj))).collect(Collectors.joining(",")))
+                    .append('\n');
+            MavenExecutionRequest request = session.getRequest();
+            fingerprint.append("activeProfiles: ").append(request.getActiveProfiles())
+                    .append(", inactiveProfiles: ").append(request.getInactiveProfiles())
+                    .append(", userProperties: ").append(request.getUserProperties() != null ? new TreeMap<>(request.getUserProperties()) : null)
+                    .append(", excludeDownstreamModulesPackagedAs: ").append(config.excludeDownstreamModulesPackagedAs);
+            return fingerprint.toString();
+        }
+    }
+
     private static class ProjectSelectionUtil {
 
         static Set<MavenProject> gatherSelectedProjects(MavenSession mavenSession) {
@@ -412,8 +529,16 @@ class UnchangedProjectsRemover {
 
         private static final Logger LOGGER = LoggerFactory.getLogger(LazyExpressionEvaluator.class);
 
+        /**
+         * Expression roots that are handled specially by {@link PluginParameterExpressionEvaluator} (via prefix match), so those are never resolved as
+         * plain properties.
+         */
+        private static final List<String> SPECIAL_EXPRESSION_ROOTS = Arrays.asList("localRepository", "session", "reactorProjects", "mojoExecution",
+                "project", "executedProject", "pom", "repositorySystemSession", "mojo", "plugin", "settings", "basedir");
+
         private final MavenSession session;
         private final MavenProject project;
+        private final Map<String, String> cache = new HashMap<>();
 
         private TypeAwareExpressionEvaluator evaluator;
 
@@ -426,6 +551,46 @@ class UnchangedProjectsRemover {
             if (expression == null || !expression.contains("${")) {
                 return expression;
             }
+            String value = cache.get(expression);
+            if (value == null) {
+                value = evaluatePlainProperty(expression);
+                if (value == null) {
+                    value = evaluateFully(expression);
+                }
+                cache.put(expression, value);
+            }
+            return value;
+        }
+
+        /**
+         * Fast path for a plain {@code ${name}} expression, resolved just like {@link PluginParameterExpressionEvaluator} would do it (system properties,
+         * then user properties, then project properties) but without cloning the session.
+         *
+         * @return the value or {@code null} if the expression is not a plain property reference (or if the value requires further evaluation)
+         */
+        private String evaluatePlainProperty(String expression) {
+            if (!expression.startsWith("${") || expression.indexOf('}') != expression.length() - 1 || expression.indexOf("${", 2) >= 0) {
+                return null;
+            }
+            String name = expression.substring(2, expression.length() - 1);
+            if (SPECIAL_EXPRESSION_ROOTS.stream().anyMatch(name::startsWith)) {
+                return null;
+            }
+            String value = getProperty(session.getSystemProperties(), name);
+            if (value == null) {
+                value = getProperty(session.getUserProperties(), name);
+            }
+            if (value == null) {
+                value = getProperty(project.getProperties(), name);
+            }
+            return value != null && !value.contains("${") ? value : null;
+        }
+
+        private static String getProperty(Properties properties, String name) {
+            return properties != null ? properties.getProperty(name) : null;
+        }
+
+        private String evaluateFully(String expression) {
             if (evaluator == null) {
                 // set project on cloned session otherwise properties might be resolved from a more or less unrelated project
                 MavenSession clonedSession = session.clone();
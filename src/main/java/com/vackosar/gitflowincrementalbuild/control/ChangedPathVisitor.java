@@ -0,0 +1,40 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import java.nio.file.Path;
+
+/**
+ * Receives the changed paths from {@link DifferentFiles} one by one, as soon as they are detected.
+ */
+@FunctionalInterface
+public interface ChangedPathVisitor {
+
+    /**
+     * @param path normalized, absolute path of a changed file or of a changed directory (see {@link #isVisitableAsWhole(Path)}); the same path might be
+     *            visited more than once
+     * @return {@code true} to continue or {@code false} if no further paths are required (e.g. because all modules are already known to be changed)
+     */
+    boolean visit(Path path);
+
+    /**
+     * Returns whether the given changed directory can be passed to {@link #visit(Path)} as a whole instead of passing each of the changed files within
+     * that directory (which then are not detected at all). This is just an optimization hint, the default implementation always returns {@code false}.
+     *
+     * @param directory normalized, absolute path of a changed directory
+     * @return {@code true} if visiting the directory itself is equivalent to visiting all of its changed files
+     */
+    default boolean isVisitableAsWhole(Path directory) {
+        return false;
+    }
+
+    /**
+     * Returns whether the changed files within the given directory (if any) are not required at all, e.g. because the module of the directory is already
+     * known to be changed. Such a directory might then not even be examined for uncommitted and untracked files. This is just an optimization hint, the
+     * default implementation always returns {@code false}.
+     *
+     * @param directory normalized, absolute path of a directory
+     * @return {@code true} if visiting any path within the directory is equivalent to not visiting it at all
+     */
+    default boolean isSkippable(Path directory) {
+        return false;
+    }
+}
@@ -1,12 +1,12 @@
 package com.vackosar.gitflowincrementalbuild.control;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -18,6 +18,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vackosar.gitflowincrementalbuild.boundary.Configuration;
+import com.vackosar.gitflowincrementalbuild.control.Metrics.Count;
+import com.vackosar.gitflowincrementalbuild.control.Metrics.Phase;
 
 @Singleton
 @Named
@@ -28,26 +30,50 @@ public class ChangedProjects {
     @Inject private DifferentFiles differentFiles;
     @Inject private Modules modules;
 
+    /** Module path index of a previous build (without any reactor modules), see {@link Configuration#reuseAcrossBuilds}. */
+    private ModulePathIndex reusableModulePathIndex;
+    private Set<Path> reusableReactorModuleDirs;
+    private Set<Path> reusableTrackedPomDirs;
+
     public Set<MavenProject> get(Configuration config) throws GitAPIException, IOException {
-        Map<Path, MavenProject> modulesPathMap = modules.createPathMap(config.mavenSession);
-        return differentFiles.get(config).stream()
-                .map(path -> findProject(path, modulesPathMap))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        ChangedProjectsCollector collector = new ChangedProjectsCollector(config);
+        differentFiles.get(config, collector);
+        config.metrics.set(Count.CHANGED_MODULES, collector.changedProjects.size());
+        return collector.changedProjects;
     }
 
-    private MavenProject findProject(Path diffPath, Map<Path, MavenProject> modulesPathMap) {
-        Path path = diffPath;
-        // Files.exist() to spot changes in non-reactor module (path will then yield a null changedReactorProject).
-        // Without this check, the changed path would be wrongly mapped to the "closest" reactor module (which might not have changed at all!).
-        while (path != null && !modulesPathMap.containsKey(path) && !Files.exists(path.resolve("pom.xml"))) {
-            path = path.getParent();
+    private ModulePathIndex createModulePathIndex(Configuration config) throws IOException {
+        Map<Path, MavenProject> reactorModules = modules.createPathMap(config.mavenSession);
+        Set<Path> trackedPomDirs = differentFiles.getTrackedPomDirs(config);
+        // note: DifferentFiles returns the very same set if the Git index has not changed since the previous build
+        if (config.reuseAcrossBuilds && reusableModulePathIndex != null && trackedPomDirs == reusableTrackedPomDirs
+                && reactorModules.keySet().equals(reusableReactorModuleDirs)) {
+            logger.debug("Reusing module path index of previous build.");
+            return reusableModulePathIndex.withReactorModules(reactorModules);
+        }
+        ModulePathIndex modulePathIndex = new ModulePathIndex(reactorModules, trackedPomDirs);
+        if (config.reuseAcrossBuilds) {
+            // don't retain the MavenProjects of this build
+            reusableModulePathIndex = modulePathIndex.withReactorModules(Collections.emptyMap());
+            reusableReactorModuleDirs = new HashSet<>(reactorModules.keySet());
+            reusableTrackedPomDirs = trackedPomDirs;
+        } else {
+            reusableModulePathIndex = null;
+            reusableReactorModuleDirs = null;
+            reusableTrackedPomDirs = null;
         }
+        return modulePathIndex;
+    }
+
+    private MavenProject findProject(Path diffPath, ModulePathIndex modulePathIndex) {
+        // non-reactor modules are part of the index to spot changes in non-reactor modules (path will then yield a null changedReactorProject).
+        // Without those, the changed path would be wrongly mapped to the "closest" reactor module (which might not have changed at all!).
+        Path path = modulePathIndex.findModuleDir(diffPath);
         if (path == null) {
             logger.warn("Ignoring changed file outside build project: {}", diffPath);
             return null;
         }
-        MavenProject changedReactorProject = modulesPathMap.get(path);
+        MavenProject changedReactorProject = modulePathIndex.getReactorModule(path);
         if (changedReactorProject == null) {
             logger.warn("Ignoring changed file in non-reactor module: {}", diffPath);
             return null;
@@ -55,4 +81,60 @@ public class ChangedProjects {
         logger.debug("Changed file: {}", diffPath);
         return changedReactorProject;
     }
+
+    private class ChangedProjectsCollector implements ChangedPathVisitor {
+
+        private final Configuration config;
+        private final Set<MavenProject> changedProjects = new HashSet<>();
+
+        private ModulePathIndex modulePathIndex;
+
+        ChangedProjectsCollector(Configuration config) {
+            this.config = config;
+        }
+
+        @Override
+        public boolean visit(Path path) {
+            ModulePathIndex index = getModulePathIndex();
+            MavenProject project = findProject(path, index);
+            if (project != null && changedProjects.add(project) && changedProjects.size() == index.getReactorModuleCount()) {
+                logger.debug("All reactor modules are changed, no need to look any further.");
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isVisitableAsWhole(Path directory) {
+            // all paths within the directory belong to the same module (if any) unless there are nested modules
+            return !getModulePathIndex().containsNestedModuleDir(directory);
+        }
+
+        @Override
+        public boolean isSkippable(Path directory) {
+            // all paths within the directory belong to an already changed module unless there are nested modules
+            if (changedProjects.isEmpty()) {
+                return false;
+            }
+            ModulePathIndex index = getModulePathIndex();
+            if (index.containsNestedModuleDir(directory)) {
+                return false;
+            }
+            Path moduleDir = index.findModuleDir(directory);
+            return moduleDir != null && changedProjects.contains(index.getReactorModule(moduleDir));
+        }
+
+        @SuppressWarnings("try")
+        private ModulePathIndex getModulePathIndex() {
+            if (modulePathIndex == null) {
+                // note: tracked poms have to be read _after_ DifferentFiles started since it might have checked out another branch
+                try (Metrics.Stopwatch stopwatch = config.metrics.time(Phase.MODULE_MAPPING)) {
+                    modulePathIndex = createModulePathIndex(config);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return modulePathIndex;
+        }
+    }
 }
@@ -1,38 +1,77 @@
 package com.vackosar.gitflowincrementalbuild.control;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.apache.maven.project.MavenProject;
 import org.eclipse.jgit.api.FetchCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.Status;
+import org.eclipse.jgit.api.TransportCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.IndexDiff;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.ReflogEntry;
+import org.eclipse.jgit.lib.ReflogReader;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.transport.RefSpec;
 import org.eclipse.jgit.transport.SshTransport;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
 import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
 import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.eclipse.jgit.util.FS;
+import org.eclipse.jgit.util.FS.ExecutionResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vackosar.gitflowincrementalbuild.boundary.Configuration;
+import com.vackosar.gitflowincrementalbuild.control.Metrics.Count;
+import com.vackosar.gitflowincrementalbuild.control.Metrics.Phase;
 import com.vackosar.gitflowincrementalbuild.control.jgit.AgentProxyAwareJschConfigSessionFactory;
 import com.vackosar.gitflowincrementalbuild.control.jgit.GitProvider;
 import com.vackosar.gitflowincrementalbuild.control.jgit.HttpDelegatingCredentialsProvider;
+import com.vackosar.gitflowincrementalbuild.control.jgit.NativeGit;
 import com.vackosar.gitflowincrementalbuild.entity.SkipExecutionException;
 
 @Singleton
@@ -42,8 +81,17 @@ public class DifferentFiles {
     public static final String UNSUPPORTED_WORKTREE = "JGit unsupported separate worktree checkout detected from current git dir path: ";
 
     private static final String HEAD = "HEAD";
+    private static final String POM_XML = "pom.xml";
     private static final String REFS_REMOTES = "refs/remotes/";
     private static final String REFS_HEADS = "refs/heads/";
+    private static final String BRANCH_DIFF_CACHE_DIR = "gib/diff";
+    private static final int BRANCH_DIFF_CACHE_MAX_ENTRIES = 20;
+    private static final String MERGE_BASE_CACHE_DIR = "gib/merge-base";
+    private static final int MERGE_BASE_CACHE_MAX_ENTRIES = 100;
+    private static final String FETCHED_CACHE_DIR = "gib/fetched";
+    private static final int FETCHED_CACHE_MAX_ENTRIES = 100;
+    private static final String SHALLOW_FILE = "shallow";
+    private static final int INITIAL_DEEPEN_DEPTH = 32;
 
     private Logger logger = LoggerFactory.getLogger(DifferentFiles.class);
 
@@ -51,27 +99,134 @@ public class DifferentFiles {
 
     private final Map<String, String> additionalNativeGitEnvironment = new HashMap<>();
 
+    /** Result of {@link #getTrackedPomDirs(Configuration)} of a previous build, see {@link Configuration#reuseAcrossBuilds}. */
+    private Set<Path> reusableTrackedPomDirs;
+    private File reusableTrackedPomDirsIndexFile;
+    private FileStamp reusableTrackedPomDirsIndexStamp;
+
+    /** Shared by all fetches (and builds) so that agent connection, known hosts and idle sessions can be reused. */
+    private final AgentProxyAwareJschConfigSessionFactory sshSessionFactory = new AgentProxyAwareJschConfigSessionFactory();
+
+    /** Credentials provider of a previous build, see {@link Configuration#credentialsCacheTtl}. */
+    private HttpDelegatingCredentialsProvider reusableCredentialsProvider;
+
+    /** Journal that was started by a previous build, see {@link Configuration#watchWorkingTree}. */
+    private WorkingTreeJournal reusableWorkingTreeJournal;
+
     public Set<Path> get(Configuration config) throws GitAPIException, IOException {
         Set<Path> paths = new HashSet<>();
+        get(config, path -> {
+            paths.add(path);
+            return true;
+        });
+        return paths;
+    }
+
+    /**
+     * Passes all changed paths to the given visitor, as soon as they are detected. Stops as soon as the visitor returns {@code false}.
+     *
+     * @param config the configuration
+     * @param visitor the visitor that receives the changed paths
+     * @throws GitAPIException in case of a Git related problem
+     * @throws IOException in case of a Git related problem
+     */
+    @SuppressWarnings("try")
+    public void get(Configuration config, ChangedPathVisitor visitor) throws GitAPIException, IOException {
+        ChangedPathVisitor countingVisitor = new ChangedPathVisitor() {
+            @Override
+            public boolean visit(Path path) {
+                config.metrics.add(Count.CHANGED_PATHS, 1);
+                return visitor.visit(path);
+            }
 
+            @Override
+            public boolean isVisitableAsWhole(Path directory) {
+                return visitor.isVisitableAsWhole(directory);
+            }
+
+            @Override
+            public boolean isSkippable(Path directory) {
+                return visitor.isSkippable(directory);
+            }
+        };
         Worker worker = null;
         try {
             worker = new Worker(gitProvider.get(config), config);
 
-            worker.fetch();
+            try (Metrics.Stopwatch stopwatch = config.metrics.time(Phase.FETCH)) {
+                worker.fetch();
+            }
             worker.checkout();
+            boolean proceed = true;
             if (!config.disableBranchComparison) {
-                paths.addAll(worker.getBranchDiff());
+                proceed = worker.visitBranchDiff(countingVisitor);
+            }
+            if (proceed && (config.uncommitted || config.untracked)) {
+                try (Metrics.Stopwatch stopwatch = config.metrics.time(Phase.STATUS)) {
+                    proceed = worker.visitChangesFromStatus(countingVisitor);
+                }
             }
-            if (config.uncommitted || config.untracked) {
-                paths.addAll(worker.getChangesFromStatus());
+            if (!proceed) {
+                logger.debug("Change detection stopped early.");
             }
         } finally {
             if (worker != null) {
-                worker.credentialsProvider.resetAll();
+                if (worker.credentialsProvider == reusableCredentialsProvider) {
+                    worker.credentialsProvider.resetExpired();
+                } else {
+                    worker.credentialsProvider.resetAll();
+                }
+            }
+            if (!config.reuseAcrossBuilds) {
+                sshSessionFactory.disconnectIdleSessions();
+            }
+            if (!isWatchingWorkingTree(config)) {
+                closeWorkingTreeJournal();
             }
         }
-        return paths;
+    }
+
+    /**
+     * Returns the directories of all {@code pom.xml} files in the Git index (including the ones of non-reactor modules). This does not require any file
+     * system access besides reading the index file.
+     * <p>
+     * If {@link Configuration#reuseAcrossBuilds} is enabled, the result is reused as long as the index file is not modified.
+     * </p>
+     *
+     * @param config the configuration
+     * @return normalized, absolute directory paths
+     * @throws IOException if the Git index could not be read
+     */
+    public Set<Path> getTrackedPomDirs(Configuration config) throws IOException {
+        Repository repository = gitProvider.get(config).getRepository();
+        File indexFile = repository.getIndexFile();
+        if (config.reuseAcrossBuilds && reusableTrackedPomDirs != null && indexFile.equals(reusableTrackedPomDirsIndexFile)
+                && !reusableTrackedPomDirsIndexStamp.isModified(indexFile)) {
+            logger.debug("Reusing tracked pom directories of previous build.");
+            return reusableTrackedPomDirs;
+        }
+        // stamp has to be taken _before_ reading to detect concurrent modifications
+        FileStamp indexStamp = FileStamp.of(indexFile);
+        Path workTree = repository.getWorkTree().toPath().normalize().toAbsolutePath();
+        DirCache dirCache = repository.readDirCache();
+        Set<Path> pomDirs = new HashSet<>();
+        for (int i = 0; i < dirCache.getEntryCount(); i++) {
+            String pathString = dirCache.getEntry(i).getPathString();
+            if (pathString.equals(POM_XML)) {
+                pomDirs.add(workTree);
+            } else if (pathString.endsWith("/" + POM_XML)) {
+                pomDirs.add(workTree.resolve(pathString.substring(0, pathString.length() - POM_XML.length() - 1)).normalize());
+            }
+        }
+        pomDirs = Collections.unmodifiableSet(pomDirs);
+        if (config.reuseAcrossBuilds) {
+            reusableTrackedPomDirs = pomDirs;
+            reusableTrackedPomDirsIndexFile = indexFile;
+            reusableTrackedPomDirsIndexStamp = indexStamp;
+        } else {
+            reusableTrackedPomDirs = null;
+        }
+        return pomDirs;
     }
 
     /**
@@ -84,6 +239,55 @@ public class DifferentFiles {
         additionalNativeGitEnvironment.put(key, value);
     }
 
+    private HttpDelegatingCredentialsProvider getCredentialsProvider(Repository repository, Path workTree, Configuration config) {
+        long cacheTtlMillis = config.credentialsCacheTtl * 1000L;
+        if (reusableCredentialsProvider != null && (!reusableCredentialsProvider.getProjectDir().equals(workTree)
+                || reusableCredentialsProvider.getCacheTtlMillis() != cacheTtlMillis)) {
+            reusableCredentialsProvider.resetAll();
+            reusableCredentialsProvider = null;
+        }
+        if (cacheTtlMillis <= 0) {
+            return new HttpDelegatingCredentialsProvider(workTree, repository::getConfig, additionalNativeGitEnvironment);
+        }
+        if (reusableCredentialsProvider == null) {
+            reusableCredentialsProvider = new HttpDelegatingCredentialsProvider(
+                    workTree, repository::getConfig, additionalNativeGitEnvironment, cacheTtlMillis);
+        }
+        return reusableCredentialsProvider;
+    }
+
+    private static boolean isWatchingWorkingTree(Configuration config) {
+        return config.watchWorkingTree && config.reuseAcrossBuilds && (config.uncommitted || config.untracked);
+    }
+
+    /**
+     * @return the journal of the given working tree (started by a previous build or now) or {@code null} if the working tree cannot be watched
+     */
+    private WorkingTreeJournal getWorkingTreeJournal(Repository repository, Path workTree) {
+        if (reusableWorkingTreeJournal != null && !reusableWorkingTreeJournal.getWorkTree().equals(workTree)) {
+            closeWorkingTreeJournal();
+        }
+        if (reusableWorkingTreeJournal == null) {
+            try {
+                reusableWorkingTreeJournal = new WorkingTreeJournal(repository);
+            } catch (IOException e) {
+                logger.warn("Cannot watch the working tree, falling back to a full status: " + e);
+            }
+        }
+        return reusableWorkingTreeJournal;
+    }
+
+    private void closeWorkingTreeJournal() {
+        if (reusableWorkingTreeJournal != null) {
+            try {
+                reusableWorkingTreeJournal.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close the working tree journal.", e);
+            }
+            reusableWorkingTreeJournal = null;
+        }
+    }
+
     private class Worker {
 
         private final Git git;
@@ -95,21 +299,72 @@ public class DifferentFiles {
             this.git = git;
             this.workTree = git.getRepository().getWorkTree().toPath().normalize().toAbsolutePath();
             this.configuration = configuration;
-            this.credentialsProvider = new HttpDelegatingCredentialsProvider(workTree, additionalNativeGitEnvironment);
+            this.credentialsProvider = getCredentialsProvider(git.getRepository(), workTree, configuration);
         }
 
-        private Set<Path> getBranchDiff() throws IOException {
+        @SuppressWarnings("try")
+        private boolean visitBranchDiff(ChangedPathVisitor visitor) throws IOException {
             RevCommit base = getBranchCommit(configuration.baseBranch);
-            final TreeWalk treeWalk = new TreeWalk(git.getRepository());
-            try {
-                treeWalk.addTree(base.getTree());
-                treeWalk.addTree(resolveReference(base).getTree());
-                treeWalk.setFilter(TreeFilter.ANY_DIFF);
-                treeWalk.setRecursive(true);
-                return getDiff(treeWalk, workTree);
-            } finally {
-                treeWalk.close();
+            RevTree baseTree = base.getTree();
+            RevTree referenceTree = resolveReference(base).getTree();
+            try (Metrics.Stopwatch stopwatch = configuration.metrics.time(Phase.BRANCH_DIFF)) {
+                return visitBranchDiff(baseTree, referenceTree, visitor);
+            }
+        }
+
+        private boolean visitBranchDiff(RevTree baseTree, RevTree referenceTree, ChangedPathVisitor visitor) throws IOException {
+            if (configuration.cacheBranchDiff) {
+                return visitCachedBranchDiff(baseTree, referenceTree, visitor);
+            }
+            // whole directories can only be passed to the visitor if there is no need to filter each single path
+            boolean filterPaths = configuration.excludePathRegex.isPresent() || configuration.includePathRegex.isPresent();
+            TreeFilter filter = filterPaths
+                    ? AndTreeFilter.create(TreeFilter.ANY_DIFF, new PathPatternTreeFilter(configuration.excludePathRegex, configuration.includePathRegex))
+                    : TreeFilter.ANY_DIFF;
+            try (TreeWalk treeWalk = createBranchTreeWalk(baseTree, referenceTree, filter)) {
+                if (filterPaths) {
+                    return visitDiff(treeWalk, visitor);
+                }
+                treeWalk.setRecursive(false);
+                return visitDiffByDirectory(treeWalk, visitor);
+            }
+        }
+
+        private boolean visitCachedBranchDiff(RevTree baseTree, RevTree referenceTree, ChangedPathVisitor visitor) throws IOException {
+            // note: the cached paths are not yet filtered via excludePathRegex/includePathRegex so that they can be shared between configurations
+            FileCache cache = new FileCache(git.getRepository().getDirectory().toPath().resolve(BRANCH_DIFF_CACHE_DIR), BRANCH_DIFF_CACHE_MAX_ENTRIES);
+            String key = baseTree.name() + ".." + referenceTree.name();
+            Optional<List<String>> cachedPathStrings = cache.get(key);
+            List<String> pathStrings;
+            if (cachedPathStrings.isPresent()) {
+                logger.info("Using cached branch diff for trees " + key);
+                pathStrings = cachedPathStrings.get();
+            } else {
+                // the full diff is required for the cache, so no early exit here
+                pathStrings = new ArrayList<>();
+                try (TreeWalk treeWalk = createBranchTreeWalk(baseTree, referenceTree, TreeFilter.ANY_DIFF)) {
+                    while (treeWalk.next()) {
+                        configuration.metrics.add(Count.WALKED_TREE_ENTRIES, 1);
+                        pathStrings.add(treeWalk.getPathString());
+                    }
+                }
+                cache.put(key, pathStrings);
             }
+            for (String pathString : pathStrings) {
+                if (!visitIfIncluded(pathString, visitor)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private TreeWalk createBranchTreeWalk(RevTree baseTree, RevTree referenceTree, TreeFilter filter) throws IOException {
+            final TreeWalk treeWalk = new TreeWalk(git.getRepository());
+            treeWalk.addTree(baseTree);
+            treeWalk.addTree(referenceTree);
+            treeWalk.setFilter(filter);
+            treeWalk.setRecursive(true);
+            return treeWalk;
         }
 
         private void checkout() throws IOException, GitAPIException {
@@ -119,34 +374,227 @@ public class DifferentFiles {
             }
         }
 
-        private void fetch() throws GitAPIException {
+        private void fetch() throws GitAPIException, IOException {
+            List<String> branchNames = new ArrayList<>();
             if (!configuration.disableBranchComparison && configuration.fetchReferenceBranch) {
-                fetch(configuration.referenceBranch);
+                branchNames.add(configuration.referenceBranch);
             }
             if (configuration.fetchBaseBranch) {
-                fetch(configuration.baseBranch);
+                branchNames.add(configuration.baseBranch);
+            }
+            for (String branchName : branchNames) {
+                if (!branchName.startsWith(REFS_REMOTES)) {
+                    throw new IllegalArgumentException("Branch name '" + branchName + "' is not tracking branch name since it does not start " + REFS_REMOTES);
+                }
+            }
+            if (branchNames.isEmpty()) {
+                return;
+            }
+            long packBytes = getPackBytes();
+            Map<String, List<RefSpec>> refSpecsByRemote = groupRefSpecsByRemote(branchNames);
+            if (refSpecsByRemote.size() > 1 && !(configuration.deepenShallowClone && isShallow())) {
+                fetchConcurrently(refSpecsByRemote);
+            } else {
+                // note: native fetches into the same shallow clone would compete for its shallow file
+                for (Map.Entry<String, List<RefSpec>> entry : refSpecsByRemote.entrySet()) {
+                    fetch(entry.getKey(), entry.getValue());
+                }
             }
+            configuration.metrics.add(Count.FETCHED_BYTES, Math.max(0, getPackBytes() - packBytes));
         }
 
-        private void fetch(String branchName) throws GitAPIException {
-            logger.info("Fetching branch " + branchName);
-            if (!branchName.startsWith(REFS_REMOTES)) {
-                throw new IllegalArgumentException("Branch name '" + branchName + "' is not tracking branch name since it does not start " + REFS_REMOTES);
+        /**
+         * @return the total size of all pack files (which is a good approximation of the transferred bytes, unless fetched objects are unpacked)
+         */
+        private long getPackBytes() {
+            File[] packFiles = new File(git.getRepository().getDirectory(), "objects/pack").listFiles((dir, name) -> name.endsWith(".pack"));
+            return packFiles == null ? 0 : Stream.of(packFiles).mapToLong(File::length).sum();
+        }
+
+        /**
+         * Fetches all branches of the same remote via one single {@link FetchCommand} (one single negotiation) and different remotes concurrently.
+         * <p>
+         * The fetches update disjoint remote tracking branches, but they compete for {@value Constants#FETCH_HEAD} (which JGit just does not write if it is
+         * locked by another fetch), so {@link #wasFetchedRecently(Ref)} relies on its own records instead.
+         * </p>
+         */
+        private void fetchConcurrently(Map<String, List<RefSpec>> refSpecsByRemote) throws GitAPIException, IOException {
+            ExecutorService executor = Executors.newFixedThreadPool(refSpecsByRemote.size() - 1);
+            try {
+                List<Future<Void>> futures = new ArrayList<>();
+                Map.Entry<String, List<RefSpec>> first = null;
+                for (Map.Entry<String, List<RefSpec>> entry : refSpecsByRemote.entrySet()) {
+                    if (first == null) {
+                        first = entry;
+                    } else {
+                        futures.add(executor.submit(() -> {
+                            fetch(entry.getKey(), entry.getValue());
+                            return null;
+                        }));
+                    }
+                }
+                fetch(first.getKey(), first.getValue());
+                for (Future<Void> future : futures) {
+                    awaitFetch(future);
+                }
+            } finally {
+                executor.shutdownNow();
             }
-            String remoteName = extractRemoteName(branchName);
-            String shortName = extractShortName(remoteName, branchName);
-            FetchCommand fetchCommand = git.fetch()
-                    .setCredentialsProvider(credentialsProvider)
-                    .setRemote(remoteName)
-                    .setRefSpecs(new RefSpec(REFS_HEADS + shortName + ":" + branchName));
+        }
+
+        private void awaitFetch(Future<Void> future) throws GitAPIException, IOException {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while fetching", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof GitAPIException) {
+                    throw (GitAPIException) cause;
+                }
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException("Fetch failed", cause);
+            }
+        }
+
+        private void fetch(String remoteName, List<RefSpec> refSpecs) throws GitAPIException, IOException {
+            logger.info("Fetching branch " + refSpecs.stream().map(RefSpec::getDestination).collect(Collectors.joining(", ")));
+            if (configuration.fetchMaxAge >= 0) {
+                refSpecs = removeUpToDateRefSpecs(remoteName, refSpecs);
+                if (refSpecs.isEmpty()) {
+                    return;
+                }
+            }
+            if (configuration.deepenShallowClone && isShallow()) {
+                // JGit cannot fetch into a shallow clone without potentially transferring the entire history
+                fetchNatively(remoteName, refSpecs, Collections.emptyList());
+            } else {
+                configureTransport(git.fetch())
+                        .setRemote(remoteName)
+                        .setRefSpecs(refSpecs)
+                        .call();
+            }
+            recordFetched(refSpecs);
+        }
+
+        private <C extends TransportCommand<C, ?>> C configureTransport(C command) {
+            command.setCredentialsProvider(credentialsProvider)
+                    .setTimeout(configuration.fetchTimeout);
             if (configuration.useJschAgentProxy) {
-                fetchCommand.setTransportConfigCallback(transport -> {
+                command.setTransportConfigCallback(transport -> {
                     if (transport instanceof SshTransport) {
-                        ((SshTransport) transport).setSshSessionFactory(new AgentProxyAwareJschConfigSessionFactory());
+                        ((SshTransport) transport).setSshSessionFactory(sshSessionFactory);
                     }
                 });
             }
-            fetchCommand.call();
+            return command;
+        }
+
+        /**
+         * Implements {@link Configuration#fetchMaxAge}: First removes the ref specs whose remote tracking branch was fetched recently (no network access at
+         * all), then the ones whose remote tracking branch is up to date according to the ref advertisement of the remote (no fetch negotiation).
+         */
+        private List<RefSpec> removeUpToDateRefSpecs(String remoteName, List<RefSpec> refSpecs) throws GitAPIException, IOException {
+            Repository repository = git.getRepository();
+            Map<RefSpec, ObjectId> localIds = new LinkedHashMap<>();
+            for (RefSpec refSpec : refSpecs) {
+                Ref localRef = repository.exactRef(refSpec.getDestination());
+                if (localRef == null || localRef.getObjectId() == null) {
+                    localIds.put(refSpec, null);
+                } else if (wasFetchedRecently(localRef)) {
+                    logger.info("Skipping fetch of " + refSpec.getDestination() + " since it was fetched less than " + configuration.fetchMaxAge
+                            + " seconds ago.");
+                } else {
+                    localIds.put(refSpec, localRef.getObjectId());
+                }
+            }
+            if (localIds.values().stream().noneMatch(Objects::nonNull)) {
+                return new ArrayList<>(localIds.keySet());
+            }
+            Map<String, Ref> remoteRefs = configureTransport(git.lsRemote())
+                    .setRemote(remoteName)
+                    .setHeads(true)
+                    .callAsMap();
+            List<RefSpec> result = new ArrayList<>();
+            List<RefSpec> upToDate = new ArrayList<>();
+            localIds.forEach((refSpec, localId) -> {
+                Ref remoteRef = remoteRefs.get(refSpec.getSource());
+                if (localId != null && remoteRef != null && localId.equals(remoteRef.getObjectId())) {
+                    logger.info("Skipping fetch of " + refSpec.getDestination() + " since it is up to date.");
+                    upToDate.add(refSpec);
+                } else {
+                    result.add(refSpec);
+                }
+            });
+            recordFetched(upToDate);
+            return result;
+        }
+
+        /**
+         * @return whether the given remote tracking branch was updated (reflog) or at least fetched or found to be up to date (own record per remote
+         *          tracking branch) within the {@link Configuration#fetchMaxAge}
+         */
+        private boolean wasFetchedRecently(Ref localRef) throws IOException {
+            if (configuration.fetchMaxAge == 0) {
+                return false;
+            }
+            long minTime = System.currentTimeMillis() - configuration.fetchMaxAge * 1000L;
+            ReflogReader reflogReader = git.getRepository().getReflogReader(localRef.getName());
+            ReflogEntry lastEntry = reflogReader != null ? reflogReader.getLastEntry() : null;
+            if (lastEntry != null && lastEntry.getWho().getWhen().getTime() >= minTime) {
+                return true;
+            }
+            // the reflog is not updated if nothing has changed (and FETCH_HEAD is shared by all remotes), hence the own record
+            String[] record = getFetchedCache().get(localRef.getName())
+                    .filter(lines -> lines.size() == 1)
+                    .map(lines -> lines.get(0).split(" "))
+                    .orElse(new String[0]);
+            return record.length == 2 && record[0].equals(localRef.getObjectId().name()) && Long.parseLong(record[1]) >= minTime;
+        }
+
+        /**
+         * Records the current id of the remote tracking branch of each of the given ref specs, along with the current time.
+         */
+        private void recordFetched(List<RefSpec> refSpecs) throws IOException {
+            FileCache cache = getFetchedCache();
+            String now = Long.toString(System.currentTimeMillis());
+            for (RefSpec refSpec : refSpecs) {
+                Ref localRef = git.getRepository().exactRef(refSpec.getDestination());
+                if (localRef != null && localRef.getObjectId() != null) {
+                    cache.put(localRef.getName(), Collections.singletonList(localRef.getObjectId().name() + " " + now));
+                }
+            }
+        }
+
+        private FileCache getFetchedCache() {
+            return new FileCache(git.getRepository().getDirectory().toPath().resolve(FETCHED_CACHE_DIR), FETCHED_CACHE_MAX_ENTRIES);
+        }
+
+        /**
+         * @param remoteBranchNames names of remote tracking branches (starting with {@value DifferentFiles#REFS_REMOTES})
+         * @return the respective (distinct) ref specs, grouped by remote name
+         */
+        private Map<String, List<RefSpec>> groupRefSpecsByRemote(List<String> remoteBranchNames) {
+            Map<String, List<RefSpec>> refSpecsByRemote = new LinkedHashMap<>();
+            for (String branchName : remoteBranchNames) {
+                String remoteName = extractRemoteName(branchName);
+                List<RefSpec> refSpecs = refSpecsByRemote.computeIfAbsent(remoteName, name -> new ArrayList<>());
+                RefSpec refSpec = createRefSpec(remoteName, branchName);
+                if (!refSpecs.contains(refSpec)) {
+                    refSpecs.add(refSpec);
+                }
+            }
+            return refSpecsByRemote;
+        }
+
+        private RefSpec createRefSpec(String remoteName, String branchName) {
+            return new RefSpec(REFS_HEADS + extractShortName(remoteName, branchName) + ":" + branchName);
         }
 
         private String extractRemoteName(String branchName) {
@@ -157,26 +605,175 @@ public class DifferentFiles {
             return branchName.replaceFirst(REFS_REMOTES + remoteName + "/", "");
         }
 
+        @SuppressWarnings("try")
         private RevCommit getMergeBase(RevCommit baseCommit, RevCommit referenceHeadCommit) throws IOException {
-            RevWalk walk = new RevWalk(git.getRepository());
+            long start = System.currentTimeMillis();
+            String source = "";
+            RevCommit commit;
+            try (RevWalk walk = new RevWalk(git.getRepository());
+                    Metrics.Stopwatch stopwatch = configuration.metrics.time(Phase.MERGE_BASE)) {
+                if (configuration.cacheBranchDiff) {
+                    FileCache cache = new FileCache(
+                            git.getRepository().getDirectory().toPath().resolve(MERGE_BASE_CACHE_DIR), MERGE_BASE_CACHE_MAX_ENTRIES);
+                    String cacheKey = baseCommit.name() + "..." + referenceHeadCommit.name();
+                    commit = getCachedMergeBase(cache, cacheKey, walk);
+                    if (commit != null) {
+                        source = ", from cache";
+                    } else {
+                        commit = walkToMergeBase(walk, baseCommit, referenceHeadCommit);
+                        cache.put(cacheKey, Collections.singletonList(commit.name()));
+                    }
+                } else {
+                    commit = walkToMergeBase(walk, baseCommit, referenceHeadCommit);
+                }
+            }
+            logger.info("Using merge base of id: " + commit.getId() + " (took " + (System.currentTimeMillis() - start) + " ms" + source + ")");
+            return commit;
+        }
+
+        private RevCommit walkToMergeBase(RevWalk walk, RevCommit baseCommit, RevCommit referenceHeadCommit) throws IOException {
+            RevCommit commit = findMergeBase(walk, baseCommit, referenceHeadCommit);
+            if (commit == null && configuration.deepenShallowClone && isShallow()) {
+                commit = deepenToMergeBase(baseCommit, referenceHeadCommit);
+            }
+            if (commit == null) {
+                throw new IllegalStateException("No merge base found for " + baseCommit.name() + " and " + referenceHeadCommit.name());
+            }
+            return commit;
+        }
+
+        private RevCommit findMergeBase(RevWalk walk, RevCommit baseCommit, RevCommit referenceHeadCommit) throws IOException {
             walk.setRevFilter(RevFilter.MERGE_BASE);
             walk.markStart(walk.lookupCommit(baseCommit));
             walk.markStart(walk.lookupCommit(referenceHeadCommit));
-            RevCommit commit = walk.next();
-            walk.close();
-            logger.info("Using merge base of id: " + commit.getId());
-            return commit;
+            return walk.next();
+        }
+
+        private boolean isShallow() {
+            return getShallowFile().isFile();
         }
 
-        private Set<Path> getDiff(TreeWalk treeWalk, Path gitDir) throws IOException {
-            final Set<Path> paths = new HashSet<>();
+        private File getShallowFile() {
+            return new File(git.getRepository().getDirectory(), SHALLOW_FILE);
+        }
+
+        /**
+         * Deepens the history of the remote tracking branches among baseBranch and referenceBranch by {@value #INITIAL_DEEPEN_DEPTH} commits, then by
+         * twice as many commits and so on, until their merge base is reachable (or the repository is not shallow anymore).
+         */
+        private RevCommit deepenToMergeBase(RevCommit baseCommit, RevCommit referenceHeadCommit) throws IOException {
+            Map<String, List<RefSpec>> refSpecsByRemote = groupRefSpecsByRemote(Stream.of(configuration.referenceBranch, configuration.baseBranch)
+                    .filter(branchName -> branchName.startsWith(REFS_REMOTES))
+                    .collect(Collectors.toList()));
+            if (refSpecsByRemote.isEmpty()) {
+                logger.warn("Cannot deepen shallow clone since neither baseBranch nor referenceBranch is a remote tracking branch.");
+                return null;
+            }
+            int depth = INITIAL_DEEPEN_DEPTH;
+            while (isShallow()) {
+                logger.info("No merge base found in shallow clone, deepening by " + depth + " commits...");
+                List<String> shallowCommits = Files.readAllLines(getShallowFile().toPath());
+                for (Map.Entry<String, List<RefSpec>> entry : refSpecsByRemote.entrySet()) {
+                    fetchNatively(entry.getKey(), entry.getValue(), Collections.singletonList("--deepen=" + depth));
+                }
+                // a new walk is required since the shallow commits have changed
+                try (RevWalk walk = new RevWalk(git.getRepository())) {
+                    RevCommit commit = findMergeBase(walk, baseCommit, referenceHeadCommit);
+                    if (commit != null) {
+                        return commit;
+                    }
+                }
+                if (isShallow() && shallowCommits.equals(Files.readAllLines(getShallowFile().toPath()))) {
+                    logger.warn("Deepening did not change the shallow clone, is the commit of baseBranch reachable from a remote branch?");
+                    return null;
+                }
+                depth *= 2;
+            }
+            return null;
+        }
+
+        /**
+         * Fetches via native Git which (unlike JGit) supports shallow and partial clones. The credentials are provided by native Git itself.
+         */
+        private void fetchNatively(String remoteName, List<RefSpec> refSpecs, List<String> options) throws IOException {
+            List<String> args = new ArrayList<>();
+            args.add("fetch");
+            args.addAll(options);
+            if (isBloblessFetchApplicable(remoteName)) {
+                // only trees are required, so blobs are fetched on demand (if at all)
+                args.add("--filter=blob:none");
+            }
+            args.add(remoteName);
+            refSpecs.forEach(refSpec -> args.add(refSpec.toString()));
+            logger.debug("Invoking native git " + args);
+
+            FS fs = git.getRepository().getFS();
+            ProcessBuilder procBuilder = NativeGit.processBuilder(fs, workTree, additionalNativeGitEnvironment, args.toArray(new String[0]));
+            ExecutionResult result;
+            try {
+                result = fs.execute(procBuilder, new ByteArrayInputStream(new byte[0]));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for native git " + args, e);
+            }
+            if (result.getRc() != 0) {
+                logger.info(new String(result.getStdout().toByteArray(), Charset.defaultCharset()));
+                logger.error(new String(result.getStderr().toByteArray(), Charset.defaultCharset()));
+                throw new IllegalStateException("Native Git invocation failed with return code " + result.getRc()
+                        + ". See previous log output for more details.");
+            }
+        }
+
+        /**
+         * Blobless fetching is only possible for the remote of a partial clone and it is only required if that remote has no filter of its own.
+         */
+        private boolean isBloblessFetchApplicable(String remoteName) {
+            StoredConfig config = git.getRepository().getConfig();
+            return config.getBoolean(ConfigConstants.CONFIG_REMOTE_SECTION, remoteName, "promisor", false)
+                    && config.getString(ConfigConstants.CONFIG_REMOTE_SECTION, remoteName, "partialclonefilter") == null;
+        }
+
+        private RevCommit getCachedMergeBase(FileCache cache, String cacheKey, RevWalk walk) throws IOException {
+            Optional<ObjectId> cachedId = cache.get(cacheKey)
+                    .filter(lines -> lines.size() == 1 && ObjectId.isId(lines.get(0)))
+                    .map(lines -> ObjectId.fromString(lines.get(0)));
+            if (!cachedId.isPresent()) {
+                return null;
+            }
+            try {
+                return walk.parseCommit(cachedId.get());
+            } catch (MissingObjectException | IncorrectObjectTypeException e) {
+                logger.debug("Ignoring invalid cached merge base " + cachedId.get().name(), e);
+                return null;
+            }
+        }
+
+        private boolean visitDiff(TreeWalk treeWalk, ChangedPathVisitor visitor) throws IOException {
+            // note: the paths are already filtered via the TreeFilter
             while (treeWalk.next()) {
-                Path path = Paths.get(treeWalk.getPathString()).normalize();
-                if (pathIncluded(path)) {
-                    paths.add(gitDir.resolve(path));
+                configuration.metrics.add(Count.WALKED_TREE_ENTRIES, 1);
+                if (!visitor.visit(workTree.resolve(Paths.get(treeWalk.getPathString()).normalize()))) {
+                    return false;
                 }
             }
-            return paths;
+            return true;
+        }
+
+        private boolean visitDiffByDirectory(TreeWalk treeWalk, ChangedPathVisitor visitor) throws IOException {
+            while (treeWalk.next()) {
+                configuration.metrics.add(Count.WALKED_TREE_ENTRIES, 1);
+                Path path = workTree.resolve(Paths.get(treeWalk.getPathString()).normalize());
+                if (treeWalk.isSubtree() && !visitor.isVisitableAsWhole(path)) {
+                    treeWalk.enterSubtree();
+                } else if (!visitor.visit(path)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean visitIfIncluded(String pathString, ChangedPathVisitor visitor) {
+            return !pathIncluded(pathString) || visitor.visit(workTree.resolve(Paths.get(pathString).normalize()));
         }
 
         private RevCommit getBranchCommit(String branchName) throws IOException {
@@ -201,21 +798,232 @@ public class DifferentFiles {
             return commit;
         }
 
-        private Set<Path> getChangesFromStatus() throws GitAPIException {
+        private boolean visitChangesFromStatus(ChangedPathVisitor visitor) throws IOException {
+            Set<String> changes;
+            if (isWatchingWorkingTree(configuration)) {
+                changes = getChangesFromWorkingTreeJournal();
+            } else if (configuration.untracked && configuration.parallelUntracked) {
+                return visitChangesFromParallelStatus(visitor);
+            } else if (configuration.fastStatus) {
+                // cheap path filters first, no need to collect the paths first
+                List<TreeFilter> filters = new ArrayList<>();
+                createReactorModulesFilter().ifPresent(filters::add);
+                createPathPatternFilter().ifPresent(filters::add);
+                filters.add(new SkippableTreeFilter(workTree, visitor));
+                return walkFastStatus(filters, pathString -> visitor.visit(workTree.resolve(Paths.get(pathString).normalize())));
+            } else {
+                changes = getChangesFromStatus(Collections.singletonList(new SkippableTreeFilter(workTree, visitor)));
+            }
+            for (String pathString : changes) {
+                if (!visitIfIncluded(pathString, visitor)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Implements {@link Configuration#parallelUntracked} (including {@link Configuration#fastStatus}, if enabled) via {@link ModuleStatusScanner}.
+         */
+        private boolean visitChangesFromParallelStatus(ChangedPathVisitor visitor) throws IOException {
+            Set<String> reactorModuleDirs = new HashSet<>();
+            for (MavenProject project : configuration.mavenSession.getAllProjects()) {
+                toPathString(project.getBasedir().toPath()).ifPresent(reactorModuleDirs::add);
+            }
+            // changes within nested non-reactor modules do not belong to the enclosing reactor module
+            Set<String> allModuleDirs = new HashSet<>(reactorModuleDirs);
+            for (Path pomDir : getTrackedPomDirs(configuration)) {
+                toPathString(pomDir).ifPresent(allModuleDirs::add);
+            }
+            // modules that are already known to be changed don't need to be scanned at all
+            List<String> scannedModuleDirs = reactorModuleDirs.stream()
+                    .filter(moduleDir -> !visitor.isSkippable(workTree.resolve(Paths.get(moduleDir)).normalize()))
+                    .collect(Collectors.toList());
+            ModuleStatusScanner scanner = new ModuleStatusScanner(
+                    git.getRepository(), allModuleDirs, createPathPatternFilter(), configuration.uncommitted, configuration.fastStatus);
+            for (String pathString : scanner.scan(scannedModuleDirs)) {
+                if (!visitor.visit(workTree.resolve(Paths.get(pathString).normalize()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Optional<TreeFilter> createPathPatternFilter() {
+            return configuration.excludePathRegex.isPresent() || configuration.includePathRegex.isPresent()
+                    ? Optional.of(new PathPatternTreeFilter(configuration.excludePathRegex, configuration.includePathRegex))
+                    : Optional.empty();
+        }
+
+        /**
+         * @return the given path relative to the working tree (with {@code /} as separator) or {@link Optional#empty()} if it is outside of it
+         */
+        private Optional<String> toPathString(Path path) {
+            Path normalizedPath = path.normalize().toAbsolutePath();
+            if (!normalizedPath.startsWith(workTree)) {
+                return Optional.empty();
+            }
+            return Optional.of(workTree.relativize(normalizedPath).toString().replace(File.separatorChar, '/'));
+        }
+
+        /**
+         * Implements {@link Configuration#watchWorkingTree}: As long as neither {@code HEAD} nor the index nor the ignore rules have changed since the
+         * previous build, only the paths that were touched since then and the changes of the previous build are examined.
+         */
+        private Set<String> getChangesFromWorkingTreeJournal() throws IOException {
+            Repository repository = git.getRepository();
+            WorkingTreeJournal journal = getWorkingTreeJournal(repository, workTree);
+            if (journal == null) {
+                return getChangesFromStatus(Collections.emptyList());
+            }
+            Optional<Set<String>> touchedPaths;
+            try {
+                touchedPaths = journal.pollTouchedPaths(repository);
+            } catch (IOException e) {
+                logger.warn("Cannot watch the working tree anymore, falling back to a full status: " + e);
+                closeWorkingTreeJournal();
+                return getChangesFromStatus(Collections.emptyList());
+            }
+            // stamp has to be taken _before_ reading to detect concurrent modifications
+            File indexFile = repository.getIndexFile();
+            FileStamp indexStamp = FileStamp.of(indexFile);
+            String state = createWorkingTreeJournalState();
+            Optional<Set<String>> previousChanges = touchedPaths
+                    .filter(paths -> paths.stream().noneMatch(path -> path.equals(Constants.DOT_GIT_IGNORE) || path.endsWith("/" + Constants.DOT_GIT_IGNORE)))
+                    .flatMap(paths -> journal.getStatus(state));
+            Set<String> changes;
+            if (previousChanges.isPresent()) {
+                Set<String> candidates = new HashSet<>(previousChanges.get());
+                candidates.addAll(touchedPaths.get());
+                logger.debug("Examining {} paths that were touched or changed since the previous build.", candidates.size());
+                changes = candidates.isEmpty() ? Collections.emptySet() : getChangesFromStatus(Collections.singletonList(PathFilterGroup.createFromStrings(candidates)));
+            } else {
+                if (touchedPaths.isPresent() && journal.hasStatus()) {
+                    // tracked or ignored directories might have changed (an overflow already re-registered everything)
+                    try {
+                        journal.reregisterAll(repository);
+                    } catch (IOException e) {
+                        logger.warn("Cannot watch the working tree anymore, falling back to a full status: " + e);
+                        closeWorkingTreeJournal();
+                        return getChangesFromStatus(Collections.emptyList());
+                    }
+                }
+                logger.debug("Examining the entire working tree.");
+                changes = getChangesFromStatus(Collections.emptyList());
+            }
+            journal.putStatus(state, indexFile, indexStamp, changes);
+            return changes;
+        }
+
+        /**
+         * @return everything besides the working tree and the index that the (unfiltered) status depends on, including all ignore rules
+         */
+        private String createWorkingTreeJournalState() throws IOException {
+            Repository repository = git.getRepository();
+            ObjectId head = repository.resolve(HEAD);
+            long excludeFileModified = new File(repository.getDirectory(), Constants.INFO_EXCLUDE).lastModified();
+            String excludesFile = repository.getConfig().getString(ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_KEY_EXCLUDESFILE);
+            long excludesFileModified = 0;
+            if (excludesFile != null) {
+                FS fs = repository.getFS();
+                File file = excludesFile.startsWith("~/") ? fs.resolve(fs.userHome(), excludesFile.substring(2)) : fs.resolve(null, excludesFile);
+                excludesFileModified = file.lastModified();
+            }
+            return (head != null ? head.name() : "") + "," + excludeFileModified + "," + excludesFile + "," + excludesFileModified + ","
+                    + hashTrackedGitignoreFiles(repository) + "," + configuration.uncommitted + "," + configuration.untracked + ","
+                    + configuration.fastStatus;
+        }
+
+        /**
+         * @return a hash over the paths and modification times of all tracked {@code .gitignore} files (untracked ones show up as touched paths)
+         */
+        private long hashTrackedGitignoreFiles(Repository repository) throws IOException {
+            long hash = 17;
+            DirCache dirCache = repository.readDirCache();
+            for (int i = 0; i < dirCache.getEntryCount(); i++) {
+                String path = dirCache.getEntry(i).getPathString();
+                if (path.equals(Constants.DOT_GIT_IGNORE) || path.endsWith("/" + Constants.DOT_GIT_IGNORE)) {
+                    hash = 31 * hash + path.hashCode();
+                    hash = 31 * hash + new File(repository.getWorkTree(), path).lastModified();
+                }
+            }
+            return hash;
+        }
+
+        /**
+         * @param filters path filters for the files and directories to examine (e.g. to skip entire directories)
+         * @return all uncommitted and/or untracked paths (relative to the working tree), not yet filtered via excludePathRegex/includePathRegex
+         */
+        private Set<String> getChangesFromStatus(List<TreeFilter> filters) throws IOException {
             Set<String> changes = new HashSet<>();
-            Status status = git.status().call();
+            if (configuration.fastStatus) {
+                walkFastStatus(filters, changes::add);
+                return changes;
+            }
+            // same as StatusCommand, but with arbitrary filters
+            IndexDiff indexDiff = new IndexDiff(git.getRepository(), HEAD, new FileTreeIterator(git.getRepository()));
+            if (!filters.isEmpty()) {
+                indexDiff.setFilter(filters.size() == 1 ? filters.get(0) : AndTreeFilter.create(filters));
+            }
+            indexDiff.diff();
+            Status status = new Status(indexDiff);
             if (configuration.uncommitted) {
                 changes.addAll(status.getUncommittedChanges());
             }
             if (configuration.untracked) {
                 changes.addAll(status.getUntracked());
             }
-            return changes.stream()
-                    .map(Paths::get)
-                    .map(Path::normalize)
-                    .filter(this::pathIncluded)
-                    .map(workTree::resolve)
-                    .collect(Collectors.toSet());
+            return changes;
+        }
+
+        /**
+         * Implements {@link Configuration#fastStatus} via a single {@link TreeWalk} over {@code HEAD}, the index and the working tree.
+         *
+         * @param pathFilters path filters for the files and directories to examine (e.g. to skip entire directories)
+         * @param pathStringVisitor receives the paths relative to the working tree, stops the walk by returning {@code false}
+         * @return {@code false} if the walk was stopped
+         */
+        private boolean walkFastStatus(List<TreeFilter> pathFilters, Predicate<String> pathStringVisitor) throws IOException {
+            Repository repository = git.getRepository();
+            try (TreeWalk treeWalk = new TreeWalk(repository)) {
+                ObjectId headTreeId = repository.resolve(HEAD + "^{tree}");
+                if (headTreeId != null) {
+                    treeWalk.addTree(headTreeId);
+                } else {
+                    treeWalk.addTree(new EmptyTreeIterator());
+                }
+                treeWalk.addTree(new DirCacheIterator(repository.readDirCache()));
+                FileTreeIterator workingTreeIterator = new FileTreeIterator(repository);
+                workingTreeIterator.setDirCacheIterator(treeWalk, FastStatusTreeFilter.INDEX);
+                treeWalk.addTree(workingTreeIterator);
+
+                List<TreeFilter> filters = new ArrayList<>(pathFilters);
+                filters.add(new FastStatusTreeFilter(configuration.uncommitted, configuration.untracked, true, treeWalk.getObjectReader()));
+                treeWalk.setFilter(filters.size() == 1 ? filters.get(0) : AndTreeFilter.create(filters));
+                treeWalk.setRecursive(true);
+                while (treeWalk.next()) {
+                    if (!pathStringVisitor.test(treeWalk.getPathString())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+
+        /**
+         * @return a filter for the directories of all reactor modules (changes outside of those are ignored anyway) or nothing if the root directory of
+         *          the working tree is one of them or if any of them is outside of the working tree
+         */
+        private Optional<TreeFilter> createReactorModulesFilter() {
+            List<String> moduleDirs = new ArrayList<>();
+            for (MavenProject project : configuration.mavenSession.getAllProjects()) {
+                Path moduleDir = project.getBasedir().toPath().normalize().toAbsolutePath();
+                if (moduleDir.equals(workTree) || !moduleDir.startsWith(workTree)) {
+                    return Optional.empty();
+                }
+                moduleDirs.add(workTree.relativize(moduleDir).toString().replace(File.separatorChar, '/'));
+            }
+            return moduleDirs.isEmpty() ? Optional.empty() : Optional.of(PathFilterGroup.createFromStrings(moduleDirs));
         }
 
         private RevCommit resolveReference(RevCommit base) throws IOException {
@@ -227,8 +1035,7 @@ public class DifferentFiles {
             }
         }
 
-        private boolean pathIncluded(Path path) {
-            final String pathString = path.toString();
+        private boolean pathIncluded(String pathString) {
             boolean excluded = configuration.excludePathRegex.map(pred -> pred.test(pathString)).orElse(false);
             boolean included = !excluded && configuration.includePathRegex.map(pred -> pred.test(pathString)).orElse(true);
             logger.debug("included {}: {}", included, pathString);
@@ -0,0 +1,112 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import java.io.IOException;
+
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.treewalk.AbstractTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator.MetadataDiff;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Implements {@link Property#fastStatus} for a {@link TreeWalk} over {@code HEAD} ({@link #HEAD}), the Git index ({@link #INDEX}) and the working tree
+ * ({@link #WORKING_TREE}): Includes all uncommitted and/or untracked files, without entering ignored untracked directories.
+ * <p>
+ * Unlike {@link org.eclipse.jgit.lib.IndexDiff}, a file is considered modified as soon as its size, mode or modification time differs from the index
+ * entry, without comparing the content (which is only done for "racily clean" entries). Unless the metadata is not to be trusted, in which case the
+ * result is the same as the one of {@link org.eclipse.jgit.lib.IndexDiff} (see {@link ModuleStatusScanner}).
+ * </p>
+ */
+class FastStatusTreeFilter extends TreeFilter {
+
+    static final int HEAD = 0;
+    static final int INDEX = 1;
+    static final int WORKING_TREE = 2;
+
+    private final boolean uncommitted;
+    private final boolean untracked;
+    private final boolean trustMetadata;
+    private final ObjectReader reader;
+
+    /**
+     * @param uncommitted whether to include uncommitted files
+     * @param untracked whether to include untracked files
+     * @param trustMetadata whether a file is considered modified if only its modification time differs from the index entry (without comparing the
+     *            content)
+     * @param reader the reader of the {@link TreeWalk}
+     */
+    FastStatusTreeFilter(boolean uncommitted, boolean untracked, boolean trustMetadata, ObjectReader reader) {
+        this.uncommitted = uncommitted;
+        this.untracked = untracked;
+        this.trustMetadata = trustMetadata;
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean include(TreeWalk walker) throws IOException {
+        AbstractTreeIterator head = walker.getTree(HEAD, AbstractTreeIterator.class);
+        DirCacheIterator index = walker.getTree(INDEX, DirCacheIterator.class);
+        WorkingTreeIterator workingTree = walker.getTree(WORKING_TREE, WorkingTreeIterator.class);
+
+        if (walker.isSubtree()) {
+            // tracked directories are always entered, untracked ones only if they are not ignored
+            return index != null || head != null || (untracked && !workingTree.isEntryIgnored());
+        }
+        if (index == null && workingTree != null) {
+            if (untracked && !workingTree.isEntryIgnored()) {
+                return true;
+            }
+            if (head == null) {
+                return false;
+            }
+        }
+        return uncommitted && isUncommitted(walker, index, workingTree);
+    }
+
+    private boolean isUncommitted(TreeWalk walker, DirCacheIterator index, WorkingTreeIterator workingTree) throws IOException {
+        // staged (including deletions and additions)?
+        if (index == null || walker.getRawMode(HEAD) != walker.getRawMode(INDEX) || !walker.idEqual(HEAD, INDEX)) {
+            return true;
+        }
+        DirCacheEntry entry = index.getDirCacheEntry();
+        if (entry == null || entry.isAssumeValid() || entry.isSkipWorkTree()) {
+            return false;
+        }
+        if (workingTree == null) {
+            return true;
+        }
+        if (!trustMetadata || entry.getFileMode() == FileMode.GITLINK) {
+            // same as IndexDiff: a mere timestamp difference requires a content check
+            return workingTree.isModified(entry, true, reader);
+        }
+        MetadataDiff metadataDiff = workingTree.compareMetadata(entry);
+        switch (metadataDiff) {
+            case EQUAL:
+                return false;
+            case SMUDGED:
+                // "racily clean", the metadata cannot be trusted
+                return workingTree.isModified(entry, true, reader);
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    public boolean shouldBeRecursive() {
+        return true;
+    }
+
+    @Override
+    public TreeFilter clone() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "FAST_STATUS(uncommitted: " + uncommitted + ", untracked: " + untracked + ", trustMetadata: " + trustMetadata + ")";
+    }
+}
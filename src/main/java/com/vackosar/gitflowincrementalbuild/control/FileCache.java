@@ -0,0 +1,136 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Simple persistent cache that stores each entry as a line-based file in the given directory.
+ * <p>
+ * Entries are written atomically (temp file + move) so that concurrent readers never see partial entries. The least recently used entries are evicted
+ * as soon as there are more than {@code maxEntries} entries, "last used" being the last modified time of the respective file (which is updated on
+ * each hit).
+ * </p>
+ */
+class FileCache {
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private Logger logger = LoggerFactory.getLogger(FileCache.class);
+
+    private final Path directory;
+    private final int maxEntries;
+
+    FileCache(Path directory, int maxEntries) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param key the key of the entry
+     * @return the lines of the entry for the given key or {@link Optional#empty()} if there is no such entry (or if it could not be read)
+     */
+    Optional<List<String>> get(String key) {
+        Path entryFile = directory.resolve(toFileName(key));
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(entryFile, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            logger.warn("Failed to read cache entry " + entryFile, e);
+            return Optional.empty();
+        }
+        // first line is the key itself, just to be sure
+        if (lines.isEmpty() || !lines.get(0).equals(key)) {
+            logger.warn("Ignoring invalid cache entry {}", entryFile);
+            return Optional.empty();
+        }
+        try {
+            Files.setLastModifiedTime(entryFile, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // e.g. read-only: the entry is still valid, it is just evicted earlier than necessary
+            logger.debug("Failed to mark cache entry " + entryFile + " as used", e);
+        }
+        return Optional.of(lines.subList(1, lines.size()));
+    }
+
+    /**
+     * Stores the given lines under the given key, replacing any previous entry for that key.
+     *
+     * @param key the key of the entry
+     * @param lines the lines to store
+     */
+    void put(String key, Collection<String> lines) {
+        String fileName = toFileName(key);
+        Path entryFile = directory.resolve(fileName);
+        try {
+            Files.createDirectories(directory);
+            Path tmpFile = Files.createTempFile(directory, fileName, TMP_SUFFIX);
+            try {
+                List<String> content = new ArrayList<>(lines.size() + 1);
+                content.add(key);
+                content.addAll(lines);
+                Files.write(tmpFile, content, StandardCharsets.UTF_8);
+                try {
+                    Files.move(tmpFile, entryFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmpFile, entryFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmpFile);
+            }
+            evict();
+        } catch (IOException e) {
+            logger.warn("Failed to write cache entry " + entryFile, e);
+        }
+    }
+
+    private void evict() throws IOException {
+        List<Path> entryFiles;
+        try (Stream<Path> files = Files.list(directory)) {
+            entryFiles = files.filter(file -> !file.getFileName().toString().endsWith(TMP_SUFFIX))
+                    .collect(Collectors.toList());
+        }
+        if (entryFiles.size() <= maxEntries) {
+            return;
+        }
+        entryFiles.sort(Comparator.comparing(FileCache::getLastModifiedTime));
+        for (Path entryFile : entryFiles.subList(0, entryFiles.size() - maxEntries)) {
+            logger.debug("Evicting cache entry {}", entryFile);
+            Files.deleteIfExists(entryFile);
+        }
+    }
+
+    private static FileTime getLastModifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            // deleted concurrently or not accessible: evict first
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String toFileName(String key) {
+        MessageDigest digest = Constants.newMessageDigest();
+        return ObjectId.fromRaw(digest.digest(key.getBytes(StandardCharsets.UTF_8))).name();
+    }
+}
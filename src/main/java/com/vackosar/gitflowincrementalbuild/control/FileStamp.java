@@ -0,0 +1,65 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * Remembers the size, last modified time and file key of a file to detect later modifications, similar to JGit's (internal) {@code FileSnapshot}.
+ * <p>
+ * A file that was modified shortly before the stamp was taken might be modified again without changing its last modified time (due to the timestamp
+ * resolution of the file system), so such a "racily clean" file is always considered modified.
+ * </p>
+ */
+final class FileStamp {
+
+    /** Generous upper bound of the timestamp resolution of common file systems (e.g. 2 seconds for FAT). */
+    private static final long RACY_INTERVAL_MILLIS = 2500;
+
+    private final long size;
+    private final long lastModifiedMillis;
+    private final Object fileKey;
+    private final long stampMillis;
+
+    private FileStamp(long size, long lastModifiedMillis, Object fileKey, long stampMillis) {
+        this.size = size;
+        this.lastModifiedMillis = lastModifiedMillis;
+        this.fileKey = fileKey;
+        this.stampMillis = stampMillis;
+    }
+
+    /**
+     * @param file the file to stamp (might not exist)
+     * @return the stamp of the current state of the given file
+     * @throws IOException if the attributes of an existing file cannot be read
+     */
+    static FileStamp of(File file) throws IOException {
+        long stampMillis = System.currentTimeMillis();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            return new FileStamp(attributes.size(), attributes.lastModifiedTime().toMillis(), attributes.fileKey(), stampMillis);
+        } catch (NoSuchFileException e) {
+            return new FileStamp(-1, -1, null, stampMillis);
+        }
+    }
+
+    /**
+     * @param file the file that was stamped
+     * @return whether the given file might have been modified since this stamp was taken
+     */
+    boolean isModified(File file) {
+        if (stampMillis - lastModifiedMillis < RACY_INTERVAL_MILLIS && lastModifiedMillis != -1) {
+            return true;
+        }
+        FileStamp current;
+        try {
+            current = of(file);
+        } catch (IOException e) {
+            return true;
+        }
+        return current.size != size || current.lastModifiedMillis != lastModifiedMillis || !Objects.equals(current.fileKey, fileKey);
+    }
+}
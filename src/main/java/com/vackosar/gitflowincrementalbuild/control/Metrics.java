@@ -0,0 +1,177 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wall time per phase and some counts of a single build (see {@link com.vackosar.gitflowincrementalbuild.boundary.Configuration#metrics}).
+ * <p>
+ * Phases can be nested (e.g. module mapping during the branch diff), in which case the time of the inner phase is not added to the outer phase. So the sum
+ * of all phases does not exceed the total time.
+ * </p>
+ */
+public class Metrics {
+
+    public enum Phase {
+        /** Fetching baseBranch and/or referenceBranch. */
+        FETCH("fetch"),
+        /** Finding (or deepening to) the merge base. */
+        MERGE_BASE("mergeBase"),
+        /** Comparing the trees of baseBranch and referenceBranch. */
+        BRANCH_DIFF("branchDiff"),
+        /** Uncommitted and untracked files. */
+        STATUS("status"),
+        /** Mapping the changed paths to modules (creation of the module index). */
+        MODULE_MAPPING("moduleMapping"),
+        /** Calculating the impacted (downstream) and upstream modules. */
+        GRAPH_EXPANSION("graphExpansion");
+
+        private final String key;
+
+        Phase(String key) {
+            this.key = key;
+        }
+    }
+
+    public enum Count {
+        WALKED_TREE_ENTRIES("walkedTreeEntries"),
+        CHANGED_PATHS("changedPaths"),
+        CHANGED_MODULES("changedModules"),
+        IMPACTED_MODULES("impactedModules"),
+        UPSTREAM_MODULES("upstreamModules"),
+        /** Size of the pack files that were added by fetching. */
+        FETCHED_BYTES("fetchedBytes");
+
+        private final String key;
+
+        Count(String key) {
+            this.key = key;
+        }
+    }
+
+    private final Map<Phase, AtomicLong> phaseNanos = new EnumMap<>(Phase.class);
+    private final Map<Count, AtomicLong> counts = new EnumMap<>(Count.class);
+    private final ThreadLocal<Stopwatch> currentStopwatch = new ThreadLocal<>();
+    private final long startNanos = System.nanoTime();
+    private volatile long totalNanos = -1;
+
+    public Metrics() {
+        for (Phase phase : Phase.values()) {
+            phaseNanos.put(phase, new AtomicLong());
+        }
+        for (Count count : Count.values()) {
+            counts.put(count, new AtomicLong());
+        }
+    }
+
+    /**
+     * Starts measuring the given phase, pausing the phase that is currently measured by the calling thread (if any).
+     * <p>
+     * Meant for a try-with-resources statement that never references the stopwatch, so the callers suppress the {@code try} lint warning.
+     *
+     * @param phase the phase
+     * @return a {@link Stopwatch} that has to be closed at the end of the phase
+     */
+    public Stopwatch time(Phase phase) {
+        return new Stopwatch(phase);
+    }
+
+    public void add(Count count, long delta) {
+        counts.get(count).addAndGet(delta);
+    }
+
+    public void set(Count count, long value) {
+        counts.get(count).set(value);
+    }
+
+    public long get(Count count) {
+        return counts.get(count).get();
+    }
+
+    public long getMillis(Phase phase) {
+        return TimeUnit.NANOSECONDS.toMillis(phaseNanos.get(phase).get());
+    }
+
+    /**
+     * Stops the overall time measurement (once).
+     */
+    public void stop() {
+        if (totalNanos < 0) {
+            totalNanos = System.nanoTime() - startNanos;
+        }
+    }
+
+    public long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos >= 0 ? totalNanos : System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return all phases (in milliseconds) and counts as a JSON object
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n  \"totalMillis\": ").append(getTotalMillis()).append(",\n  \"phaseMillis\": {");
+        String delimiter = "\n";
+        for (Phase phase : Phase.values()) {
+            json.append(delimiter).append("    \"").append(phase.key).append("\": ").append(getMillis(phase));
+            delimiter = ",\n";
+        }
+        json.append("\n  },\n  \"counts\": {");
+        delimiter = "\n";
+        for (Count count : Count.values()) {
+            json.append(delimiter).append("    \"").append(count.key).append("\": ").append(get(count));
+            delimiter = ",\n";
+        }
+        return json.append("\n  }\n}\n").toString();
+    }
+
+    /**
+     * @return all phases and counts as a table with one row per phase/count
+     */
+    public String toTable() {
+        StringBuilder table = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            table.append(String.format("%-20s %10d ms%n", phase.key, getMillis(phase)));
+        }
+        table.append(String.format("%-20s %10d ms%n", "total", getTotalMillis()));
+        for (Count count : Count.values()) {
+            table.append(String.format("%-20s %10d%n", count.key, get(count)));
+        }
+        return table.toString();
+    }
+
+    public final class Stopwatch implements AutoCloseable {
+
+        private final Phase phase;
+        private final Stopwatch outer;
+        private long startNanos;
+
+        private Stopwatch(Phase phase) {
+            this.phase = phase;
+            this.outer = currentStopwatch.get();
+            long now = System.nanoTime();
+            if (outer != null) {
+                outer.pause(now);
+            }
+            startNanos = now;
+            currentStopwatch.set(this);
+        }
+
+        private void pause(long now) {
+            phaseNanos.get(phase).addAndGet(now - startNanos);
+        }
+
+        @Override
+        public void close() {
+            long now = System.nanoTime();
+            pause(now);
+            if (outer != null) {
+                outer.startNanos = now;
+                currentStopwatch.set(outer);
+            } else {
+                currentStopwatch.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Prefix tree (trie) of module directories that maps any path to the directory of its "owning" module via in-memory lookups only (one per path element).
+ * <p>
+ * Besides the reactor modules, the index also contains directories of non-reactor modules so that paths within such modules are <i>not</i> mapped to the
+ * "closest" reactor module.
+ * </p>
+ */
+public class ModulePathIndex {
+
+    private final Node root;
+    private final Map<Path, MavenProject> reactorModules;
+
+    /**
+     * @param reactorModules the reactor modules by their normalized, absolute directory path
+     * @param nonReactorModuleDirs normalized, absolute directory paths of other (potentially non-reactor) modules
+     */
+    public ModulePathIndex(Map<Path, MavenProject> reactorModules, Collection<Path> nonReactorModuleDirs) {
+        this(new Node(), reactorModules);
+        reactorModules.keySet().forEach(this::add);
+        nonReactorModuleDirs.forEach(this::add);
+    }
+
+    private ModulePathIndex(Node root, Map<Path, MavenProject> reactorModules) {
+        this.root = root;
+        this.reactorModules = reactorModules;
+    }
+
+    /**
+     * Returns an index that shares the module directories with this index, but maps them to the given reactor modules (e.g. the ones of another build).
+     *
+     * @param reactorModules the reactor modules by their normalized, absolute directory path; those directories must already be contained in this index
+     * @return a new index
+     */
+    public ModulePathIndex withReactorModules(Map<Path, MavenProject> reactorModules) {
+        return new ModulePathIndex(root, reactorModules);
+    }
+
+    private void add(Path moduleDir) {
+        Node node = root.children.computeIfAbsent(moduleDir.getRoot(), r -> new Node());
+        for (Path element : moduleDir) {
+            node = node.children.computeIfAbsent(element, e -> new Node());
+        }
+        node.moduleDir = moduleDir;
+    }
+
+    /**
+     * Returns the directory of the module that contains the given path.
+     *
+     * @param path a normalized, absolute path
+     * @return the directory of the innermost module that contains the given path (which might be the path itself) or {@code null} if the path is not
+     *         contained in any module
+     */
+    public Path findModuleDir(Path path) {
+        Node node = root.children.get(path.getRoot());
+        if (node == null) {
+            return null;
+        }
+        Path moduleDir = node.moduleDir;
+        for (Path element : path) {
+            node = node.children.get(element);
+            if (node == null) {
+                break;
+            }
+            if (node.moduleDir != null) {
+                moduleDir = node.moduleDir;
+            }
+        }
+        return moduleDir;
+    }
+
+    /**
+     * Returns whether there is any module directory <i>below</i> the given directory, meaning that not all paths within the given directory necessarily
+     * belong to the same module.
+     *
+     * @param directory a normalized, absolute path
+     * @return {@code true} if there is at least one module directory below the given directory (the directory itself is not considered)
+     */
+    public boolean containsNestedModuleDir(Path directory) {
+        Node node = root.children.get(directory.getRoot());
+        if (node == null) {
+            return false;
+        }
+        for (Path element : directory) {
+            node = node.children.get(element);
+            if (node == null) {
+                return false;
+            }
+        }
+        return !node.children.isEmpty();
+    }
+
+    /**
+     * @param moduleDir a module directory as returned by {@link #findModuleDir(Path)}
+     * @return the respective reactor module or {@code null} if the given directory does not belong to a reactor module
+     */
+    public MavenProject getReactorModule(Path moduleDir) {
+        return reactorModules.get(moduleDir);
+    }
+
+    /**
+     * @return the number of reactor modules in this index
+     */
+    public int getReactorModuleCount() {
+        return reactorModules.size();
+    }
+
+    private static class Node {
+        private final Map<Path, Node> children = new HashMap<>();
+        private Path moduleDir;
+    }
+}
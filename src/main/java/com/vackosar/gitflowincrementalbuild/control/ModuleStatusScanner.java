@@ -0,0 +1,164 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Implements {@link Property#parallelUntracked}: Scans the modules concurrently via the common {@link ForkJoinPool} for uncommitted files (all of them)
+ * and untracked files (only the first one of each module, which is sufficient to determine the changed modules).
+ * <p>
+ * Each chunk of neighbouring modules is scanned by its own {@link TreeWalk} over {@code HEAD}, the (shared) Git index and the working tree which neither
+ * enters the directories of other modules (those are scanned on their own or do not belong to the reactor) nor ignored directories. Once an untracked
+ * file is found in a module, the untracked directories of that module are not entered anymore.
+ * </p>
+ */
+class ModuleStatusScanner {
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final Repository repository;
+    private final ObjectId headTreeId;
+    private final DirCache dirCache;
+    private final Set<String> allModuleDirs;
+    private final Optional<TreeFilter> pathFilter;
+    private final boolean uncommitted;
+    private final boolean trustMetadata;
+
+    /**
+     * @param repository the repository
+     * @param allModuleDirs the directories of all modules, including non-reactor modules (relative to the working tree, {@code ""} for the root)
+     * @param pathFilter an optional filter for the detected files (e.g. {@link PathPatternTreeFilter})
+     * @param uncommitted whether to detect uncommitted files
+     * @param trustMetadata see {@link FastStatusTreeFilter#FastStatusTreeFilter(boolean, boolean, boolean, org.eclipse.jgit.lib.ObjectReader)}
+     * @throws IOException if {@code HEAD} or the Git index could not be read
+     */
+    ModuleStatusScanner(Repository repository, Set<String> allModuleDirs, Optional<TreeFilter> pathFilter, boolean uncommitted, boolean trustMetadata)
+            throws IOException {
+        this.repository = repository;
+        this.headTreeId = repository.resolve("HEAD^{tree}");
+        this.dirCache = repository.readDirCache();
+        // build the (lazy) cache tree before it is shared between threads
+        dirCache.getCacheTree(true);
+        this.allModuleDirs = allModuleDirs;
+        this.pathFilter = pathFilter;
+        this.uncommitted = uncommitted;
+        this.trustMetadata = trustMetadata;
+    }
+
+    /**
+     * @param moduleDirs the directories of the modules to scan (relative to the working tree, {@code ""} for the root)
+     * @return the uncommitted files and the first untracked file of each of the given modules (relative to the working tree)
+     * @throws IOException if the working tree could not be read
+     */
+    List<String> scan(Collection<String> moduleDirs) throws IOException {
+        // neighbouring modules are scanned together since each walk has to start at the root
+        List<String> sortedModuleDirs = moduleDirs.stream().sorted().collect(Collectors.toList());
+        int chunkCount = Math.min(sortedModuleDirs.size(), ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD);
+        List<List<String>> chunks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            chunks.add(sortedModuleDirs.subList(i * sortedModuleDirs.size() / chunkCount, (i + 1) * sortedModuleDirs.size() / chunkCount));
+        }
+        try {
+            return chunks.parallelStream()
+                    .flatMap(chunk -> {
+                        try {
+                            return scan(chunk).stream();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private List<String> scan(List<String> moduleDirs) throws IOException {
+        Set<String> scannedModuleDirs = new HashSet<>(moduleDirs);
+        Set<String> modulesWithUntracked = new HashSet<>();
+        List<String> changes = new ArrayList<>();
+        try (TreeWalk treeWalk = new TreeWalk(repository)) {
+            if (headTreeId != null) {
+                treeWalk.addTree(headTreeId);
+            } else {
+                treeWalk.addTree(new EmptyTreeIterator());
+            }
+            treeWalk.addTree(new DirCacheIterator(dirCache));
+            FileTreeIterator workingTreeIterator = new FileTreeIterator(repository);
+            workingTreeIterator.setDirCacheIterator(treeWalk, FastStatusTreeFilter.INDEX);
+            treeWalk.addTree(workingTreeIterator);
+
+            // the module directory filter also lets pass the parent directories of the module directories
+            List<TreeFilter> filters = new ArrayList<>();
+            if (!scannedModuleDirs.contains("")) {
+                filters.add(PathFilterGroup.createFromStrings(moduleDirs));
+            }
+            pathFilter.ifPresent(filters::add);
+            if (!filters.isEmpty()) {
+                treeWalk.setFilter(filters.size() == 1 ? filters.get(0) : AndTreeFilter.create(filters));
+            }
+            treeWalk.setRecursive(false);
+
+            TreeFilter withUntracked = new FastStatusTreeFilter(uncommitted, true, trustMetadata, treeWalk.getObjectReader());
+            TreeFilter withoutUntracked = new FastStatusTreeFilter(uncommitted, false, trustMetadata, treeWalk.getObjectReader());
+            // the scanned module that contains the entries of the current directory, per depth (null for parent directories of modules)
+            List<String> owningModuleDirs = new ArrayList<>();
+            owningModuleDirs.add(scannedModuleDirs.contains("") ? "" : null);
+            while (treeWalk.next()) {
+                String pathString = treeWalk.getPathString();
+                String owningModuleDir = owningModuleDirs.get(treeWalk.getDepth());
+                if (treeWalk.isSubtree()) {
+                    if (scannedModuleDirs.contains(pathString)) {
+                        enterSubtree(treeWalk, owningModuleDirs, pathString);
+                    } else if (owningModuleDir == null) {
+                        enterSubtree(treeWalk, owningModuleDirs, null);
+                    } else if (!allModuleDirs.contains(pathString) && (uncommitted || !modulesWithUntracked.contains(owningModuleDir))
+                            && (modulesWithUntracked.contains(owningModuleDir) ? withoutUntracked : withUntracked).include(treeWalk)) {
+                        enterSubtree(treeWalk, owningModuleDirs, owningModuleDir);
+                    }
+                } else if (owningModuleDir != null
+                        && (modulesWithUntracked.contains(owningModuleDir) ? withoutUntracked : withUntracked).include(treeWalk)) {
+                    changes.add(pathString);
+                    WorkingTreeIterator entry = treeWalk.getTree(FastStatusTreeFilter.WORKING_TREE, WorkingTreeIterator.class);
+                    if (treeWalk.getTree(FastStatusTreeFilter.INDEX, DirCacheIterator.class) == null && entry != null && !entry.isEntryIgnored()) {
+                        modulesWithUntracked.add(owningModuleDir);
+                        if (!uncommitted && modulesWithUntracked.size() == scannedModuleDirs.size()) {
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return changes;
+    }
+
+    private static void enterSubtree(TreeWalk treeWalk, List<String> owningModuleDirs, String owningModuleDir) throws IOException {
+        int depth = treeWalk.getDepth() + 1;
+        if (owningModuleDirs.size() > depth) {
+            owningModuleDirs.set(depth, owningModuleDir);
+        } else {
+            owningModuleDirs.add(owningModuleDir);
+        }
+        treeWalk.enterSubtree();
+    }
+}
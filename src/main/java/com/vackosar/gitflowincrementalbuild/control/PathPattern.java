@@ -0,0 +1,139 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import java.io.File;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled value of {@link Property#excludePathRegex} or {@link Property#includePathRegex} that is applied to Git paths (relative to the repository
+ * root and separated by {@code /}).
+ * <p>
+ * Two syntaxes are supported:
+ * </p>
+ * <ul>
+ * <li>a regular expression that just needs to be <i>found</i> in the path (with platform specific separators, for backwards compatibility)</li>
+ * <li>{@code glob:} followed by a glob pattern that needs to match the <i>entire</i> path ({@code *} and {@code ?} do not match {@code /},
+ * {@code **} does), e.g. {@code glob:docs/**}</li>
+ * </ul>
+ * Unlike regular expressions, glob patterns can also be evaluated for entire directories, see {@link #matchesAllBelow(String)} and
+ * {@link #mayMatchBelow(String)}.
+ */
+public class PathPattern implements Predicate<String> {
+
+    public static final String GLOB_PREFIX = "glob:";
+
+    private static final String ANY_BELOW = "/**";
+
+    private final String patternString;
+    private final Pattern pattern;
+    private final boolean glob;
+    /** Glob only: matches directories that contain only matching paths. */
+    private final Pattern allBelowPattern;
+    /** Glob only: every matching path starts with this literal prefix. */
+    private final String literalPrefix;
+
+    private PathPattern(String patternString, Pattern pattern, boolean glob, Pattern allBelowPattern, String literalPrefix) {
+        this.patternString = patternString;
+        this.pattern = pattern;
+        this.glob = glob;
+        this.allBelowPattern = allBelowPattern;
+        this.literalPrefix = literalPrefix;
+    }
+
+    /**
+     * @param patternString a regular expression or a glob pattern prefixed with {@value #GLOB_PREFIX}
+     * @return the compiled pattern
+     * @throws java.util.regex.PatternSyntaxException if the regular expression is invalid
+     */
+    public static PathPattern compile(String patternString) {
+        if (!patternString.startsWith(GLOB_PREFIX)) {
+            return new PathPattern(patternString, Pattern.compile(patternString), false, null, "");
+        }
+        String glob = patternString.substring(GLOB_PREFIX.length());
+        Pattern allBelowPattern = null;
+        if (glob.equals("**")) {
+            allBelowPattern = Pattern.compile(".*");
+        } else if (glob.endsWith(ANY_BELOW)) {
+            allBelowPattern = Pattern.compile(globToRegex(glob.substring(0, glob.length() - ANY_BELOW.length())));
+        }
+        return new PathPattern(patternString, Pattern.compile(globToRegex(glob)), true, allBelowPattern, getLiteralPrefix(glob));
+    }
+
+    /**
+     * @param path a Git path of a file
+     * @return whether the given path matches this pattern
+     */
+    @Override
+    public boolean test(String path) {
+        if (glob) {
+            return pattern.matcher(path).matches();
+        }
+        return pattern.matcher(File.separatorChar == '/' ? path : path.replace('/', File.separatorChar)).find();
+    }
+
+    /**
+     * @param directory a Git path of a directory
+     * @return {@code true} if every path below the given directory is known to match this pattern ({@code false} does not mean the opposite)
+     */
+    public boolean matchesAllBelow(String directory) {
+        return allBelowPattern != null && allBelowPattern.matcher(directory).matches();
+    }
+
+    /**
+     * @param directory a Git path of a directory
+     * @return {@code false} if no path below the given directory can match this pattern ({@code true} does not mean the opposite)
+     */
+    public boolean mayMatchBelow(String directory) {
+        String directoryPrefix = directory + "/";
+        return directoryPrefix.startsWith(literalPrefix) || literalPrefix.startsWith(directoryPrefix);
+    }
+
+    @Override
+    public String toString() {
+        return patternString;
+    }
+
+    private static String getLiteralPrefix(String glob) {
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                return glob.substring(0, i);
+            }
+        }
+        return glob;
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() * 2);
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c != '*' && c != '?') {
+                literal.append(c);
+                continue;
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+            if (c == '?') {
+                regex.append("[^/]");
+            } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                i++;
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '/') {
+                    // "**/" also matches no directory at all
+                    i++;
+                    regex.append("(?:.*/)?");
+                } else {
+                    regex.append(".*");
+                }
+            } else {
+                regex.append("[^/]*");
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
+    }
+}
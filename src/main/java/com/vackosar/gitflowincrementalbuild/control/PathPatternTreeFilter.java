@@ -0,0 +1,47 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import java.util.Optional;
+
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Applies {@link Property#excludePathRegex} and {@link Property#includePathRegex} during a {@link TreeWalk}, skipping entire subtrees if possible
+ * (glob patterns only).
+ */
+class PathPatternTreeFilter extends TreeFilter {
+
+    private final Optional<PathPattern> exclude;
+    private final Optional<PathPattern> include;
+
+    PathPatternTreeFilter(Optional<PathPattern> exclude, Optional<PathPattern> include) {
+        this.exclude = exclude;
+        this.include = include;
+    }
+
+    @Override
+    public boolean include(TreeWalk walker) {
+        String path = walker.getPathString();
+        if (walker.isSubtree()) {
+            return !(exclude.isPresent() && exclude.get().matchesAllBelow(path))
+                    && (!include.isPresent() || include.get().mayMatchBelow(path));
+        }
+        return !(exclude.isPresent() && exclude.get().test(path))
+                && (!include.isPresent() || include.get().test(path));
+    }
+
+    @Override
+    public boolean shouldBeRecursive() {
+        return false;
+    }
+
+    @Override
+    public TreeFilter clone() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "PATH_PATTERN(exclude: " + exclude.orElse(null) + ", include: " + include.orElse(null) + ")";
+    }
+}
@@ -2,7 +2,10 @@ package com.vackosar.gitflowincrementalbuild.control;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
@@ -57,14 +60,38 @@ public enum Property {
      * Fetches the baseBranch from the remote repository
      */
     fetchBaseBranch("false", "fbb", true),
+    /**
+     * Timeout in seconds for each fetch operation, 0 means no timeout.
+     */
+    fetchTimeout("0", "ft"),
+    /**
+     * Skips fetching a branch if its remote tracking branch is not older than the given number of seconds or if it is up to date with the remote branch.
+     */
+    fetchMaxAge("-1", "fma"),
     /**
      * Can be used to disable the usage of jsch-agent-proxy when fetching via SSH.
      */
     useJschAgentProxy("true", "ujap"),
+    /**
+     * Keeps HTTP(S) credentials that were looked up via native Git in memory for the given number of seconds, also across builds in the same JVM.
+     */
+    credentialsCacheTtl("0", "cct"),
     /**
      * Controls whether or not to the merge-base mechanism to compare the branches.
      */
     compareToMergeBase("true", "ctmb", true),
+    /**
+     * Deepens a shallow clone step by step (via native Git) until the merge base of baseBranch and referenceBranch is found.
+     */
+    deepenShallowClone("false", "dsc", true),
+    /**
+     * Caches the result of the comparison between baseBranch and referenceBranch in the .git directory.
+     */
+    cacheBranchDiff("false", "cbd", true),
+    /**
+     * Keeps the Git repository and other data of the build in memory so that the next build in the same JVM (e.g. via mvnd) can reuse them.
+     */
+    reuseAcrossBuilds("false", "rab", true),
     /**
      * Detects changed files that have not yet been committed.
      */
@@ -73,6 +100,18 @@ public enum Property {
      * Detects files that are not yet tracked by git.
      */
     untracked("true", "ut", true),
+    /**
+     * Detects uncommitted and untracked files via the file metadata in the Git index, without entering ignored directories and non-reactor directories.
+     */
+    fastStatus("false", "fs", true),
+    /**
+     * Watches the working tree so that the next build in the same JVM only examines the touched paths for uncommitted and untracked files.
+     */
+    watchWorkingTree("false", "wwt", true),
+    /**
+     * Detects untracked files concurrently per module, stopping at the first untracked file of each module.
+     */
+    parallelUntracked("false", "pu", true),
     /**
      * Can be used to exclude certain changed files from being detected as changed, reducing the number of modules to build.
      */
@@ -134,12 +173,25 @@ public enum Property {
     /**
      * Defines an optional logfile which GIB shall write all "impacted" modules to.
      */
-    logImpactedTo("", "lit");
+    logImpactedTo("", "lit"),
+    /**
+     * Logs the duration of each phase of GIB (fetch, branch diff etc.) and some counts (e.g. changed modules) as a table.
+     */
+    logMetrics("false", "lm", true),
+    /**
+     * Defines an optional file which GIB shall write the duration of each phase and some counts to, in JSON format.
+     */
+    logMetricsTo("", "lmt");
 
     public static final String PREFIX = "gib.";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Property.class);
 
+    // all name candidates of all properties, per kind of properties (see resolveAll and checkProperties)
+    private static final Map<String, Property> SYSTEM_PROPERTY_NAMES = indexNames(p -> p.nameCandidatesForSystemProperties);
+    private static final Map<String, Property> PLUGIN_PROPERTY_NAMES = indexNames(p -> p.nameCandidatesForPluginProperties);
+    private static final Map<String, Property> PROJECT_PROPERTY_NAMES = indexNames(p -> p.nameCandidatesForProjectProperties);
+
     private final String prefixedName;
     private final String prefixedShortName;
 
@@ -207,6 +259,78 @@ public enum Property {
         return deprecatedName().map(PREFIX::concat).orElse(null);
     }
 
+    /**
+     * Resolves the values of all properties at once, scanning each kind of properties only once (in contrast to calling
+     * {@link #getValueWithOriginContext(Properties, Properties)} for each property).
+     *
+     * @param pluginProperties the properties from the plugin configuration
+     * @param projectProperties the properties from the project
+     * @return the values of all properties (including default values)
+     */
+    public static EnumMap<Property, ValueWithOriginContext> resolveAll(Properties pluginProperties, Properties projectProperties) {
+        Properties systemProperties = System.getProperties();
+        Map<Property, String> pluginNames = findNames(pluginProperties, false, PLUGIN_PROPERTY_NAMES, p -> p.nameCandidatesForPluginProperties);
+        Map<Property, String> systemNames = findNames(systemProperties, true, SYSTEM_PROPERTY_NAMES, p -> p.nameCandidatesForSystemProperties);
+        Map<Property, String> projectNames = findNames(projectProperties, true, PROJECT_PROPERTY_NAMES, p -> p.nameCandidatesForProjectProperties);
+
+        EnumMap<Property, ValueWithOriginContext> values = new EnumMap<>(Property.class);
+        for (Property property : values()) {
+            ValueWithOriginContext value;
+            if (pluginNames.containsKey(property)) {
+                value = property.getValueWithOriginContext(pluginNames.get(property), pluginProperties, "plugin");
+            } else if (systemNames.containsKey(property)) {
+                value = property.getValueWithOriginContext(systemNames.get(property), systemProperties, "system");
+            } else if (projectNames.containsKey(property)) {
+                value = property.getValueWithOriginContext(projectNames.get(property), projectProperties, "project");
+            } else {
+                value = new ValueWithOriginContext(property.defaultValue, property.name(), "default");
+            }
+            LOGGER.debug("{}", value);
+            values.put(property, value);
+        }
+        return values;
+    }
+
+    /**
+     * @return the names of the given properties that belong to a {@link Property} (the first candidate wins in case of multiple names per property)
+     */
+    private static Map<Property, String> findNames(Properties properties, boolean prefixed, Map<String, Property> availableNames,
+            Function<Property, List<String>> nameCandidatesProvider) {
+        Map<Property, String> names = new EnumMap<>(Property.class);
+        if (properties.isEmpty()) {
+            return names;
+        }
+        for (String name : properties.stringPropertyNames()) {
+            Property property = prefixed && !name.startsWith(PREFIX) ? null : availableNames.get(name);
+            if (property != null) {
+                List<String> nameCandidates = nameCandidatesProvider.apply(property);
+                names.merge(property, name, (name1, name2) -> nameCandidates.indexOf(name1) <= nameCandidates.indexOf(name2) ? name1 : name2);
+            }
+        }
+        return names;
+    }
+
+    private static Map<String, Property> indexNames(Function<Property, List<String>> nameCandidatesProvider) {
+        Map<String, Property> index = new HashMap<>();
+        for (Property property : values()) {
+            nameCandidatesProvider.apply(property).forEach(name -> index.put(name, property));
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    public ValueWithOriginContext getValueWithOriginContext(Map<Property, ValueWithOriginContext> resolvedValues) {
+        return resolvedValues.get(this);
+    }
+
+    public String getValue(Map<Property, ValueWithOriginContext> resolvedValues) {
+        return getValueWithOriginContext(resolvedValues).value;
+    }
+
+    public Optional<String> getValueOpt(Map<Property, ValueWithOriginContext> resolvedValues) {
+        final String value = getValue(resolvedValues);
+        return value.isEmpty() ? Optional.empty() : Optional.of(value);
+    }
+
     public ValueWithOriginContext getValueWithOriginContext(Properties pluginProperties, Properties projectProperties) {
         Optional<ValueWithOriginContext> valueWithName = getValueWithOriginContext(nameCandidatesForPluginProperties, pluginProperties, "plugin");
         if (!valueWithName.isPresent()) {
@@ -272,17 +396,17 @@ public enum Property {
     public static void checkProperties(Properties pluginProperties, Properties projectProperties) {
         String errorDetails = "";
 
-        String invalidSystemPropertyNames = checkProperties(System.getProperties(), true, p -> p.nameCandidatesForSystemProperties);
+        String invalidSystemPropertyNames = checkProperties(System.getProperties(), true, SYSTEM_PROPERTY_NAMES.keySet());
         if (!invalidSystemPropertyNames.isEmpty()) {
             errorDetails += "\n\tinvalid system properties:\n\t\t" + invalidSystemPropertyNames;
         }
 
-        String invalidPluginPropertyNames = checkProperties(pluginProperties, false, p -> p.nameCandidatesForPluginProperties);
+        String invalidPluginPropertyNames = checkProperties(pluginProperties, false, PLUGIN_PROPERTY_NAMES.keySet());
         if (!invalidPluginPropertyNames.isEmpty()) {
             errorDetails += "\n\tinvalid plugin properties:\n\t\t" + invalidPluginPropertyNames;
         }
 
-        String invalidProjectPropertyNames = checkProperties(projectProperties, true, p -> p.nameCandidatesForProjectProperties);
+        String invalidProjectPropertyNames = checkProperties(projectProperties, true, PROJECT_PROPERTY_NAMES.keySet());
         if (!invalidProjectPropertyNames.isEmpty()) {
             errorDetails += "\n\tinvalid project properties:\n\t\t" + invalidProjectPropertyNames;
         }
@@ -296,11 +420,7 @@ public enum Property {
         }
     }
 
-    private static String checkProperties(Properties properties, boolean prefixed, Function<Property, List<String>> availableNamesProvider) {
-        Set<String> allAvailableNames = Arrays.stream(Property.values())
-                .flatMap(p -> availableNamesProvider.apply(p).stream())
-                .collect(Collectors.toSet());
-
+    private static String checkProperties(Properties properties, boolean prefixed, Set<String> allAvailableNames) {
         return properties.isEmpty() ? "" : properties.keySet().stream()
                 .map(k -> (String) k)
                 .filter(k -> (!prefixed || k.startsWith(Property.PREFIX)) && !allAvailableNames.contains(k))
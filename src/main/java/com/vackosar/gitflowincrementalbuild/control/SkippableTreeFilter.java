@@ -0,0 +1,41 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Skips all subtrees of a {@link TreeWalk} that are {@link ChangedPathVisitor#isSkippable(Path) skippable} according to the given visitor.
+ */
+class SkippableTreeFilter extends TreeFilter {
+
+    private final Path workTree;
+    private final ChangedPathVisitor visitor;
+
+    SkippableTreeFilter(Path workTree, ChangedPathVisitor visitor) {
+        this.workTree = workTree;
+        this.visitor = visitor;
+    }
+
+    @Override
+    public boolean include(TreeWalk walker) {
+        return !walker.isSubtree() || !visitor.isSkippable(workTree.resolve(Paths.get(walker.getPathString())));
+    }
+
+    @Override
+    public boolean shouldBeRecursive() {
+        return false;
+    }
+
+    @Override
+    public TreeFilter clone() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "SKIPPABLE";
+    }
+}
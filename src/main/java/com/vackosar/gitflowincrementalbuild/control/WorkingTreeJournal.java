@@ -0,0 +1,261 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+
+/**
+ * Records which paths of the working tree were touched since the previous query (see {@link Property#watchWorkingTree}), via a {@link WatchService}
+ * that is registered for all tracked and all non-ignored untracked directories.
+ * <p>
+ * To make sure that all events up to a query are delivered, each query creates a "cookie" file in the Git directory and waits for its event (like
+ * Watchman does). If any event was lost (overflow) or if the cookie event does not arrive in time, the touched paths are unknown for this query.
+ * </p>
+ * <p>
+ * Additionally, the journal keeps the result of the previous status (and the state it was based on) so that the next status only needs to examine
+ * the touched paths and the previously changed paths.
+ * </p>
+ */
+class WorkingTreeJournal implements Closeable {
+
+    private static final String COOKIE_PREFIX = "gib-journal-cookie-";
+    private static final long COOKIE_TIMEOUT_MILLIS = 2000;
+
+    private final Path workTree;
+    private final Path gitDir;
+    private final WatchService watchService;
+    private final Map<Path, WatchKey> keys = new HashMap<>();
+    private long cookieCounter;
+
+    private Set<String> status;
+    private String statusState;
+    private File indexFile;
+    private FileStamp indexStamp;
+
+    /**
+     * Starts watching the working tree of the given repository.
+     *
+     * @param repository the repository (with a working tree)
+     * @throws IOException if no native {@link WatchService} is available or if the directories cannot be registered (e.g. due to OS limits)
+     */
+    WorkingTreeJournal(Repository repository) throws IOException {
+        workTree = repository.getWorkTree().toPath().normalize().toAbsolutePath();
+        gitDir = repository.getDirectory().toPath().normalize().toAbsolutePath();
+        watchService = workTree.getFileSystem().newWatchService();
+        try {
+            // a polling implementation (e.g. on macOS) might not have picked up recent changes at all when being queried
+            if (watchService.getClass().getSimpleName().startsWith("Polling")) {
+                throw new IOException("Only a polling WatchService is available: " + watchService.getClass().getName());
+            }
+            keys.put(gitDir, gitDir.register(watchService, ENTRY_CREATE));
+            registerTree(repository, Optional.empty());
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+    }
+
+    Path getWorkTree() {
+        return workTree;
+    }
+
+    /**
+     * Returns all paths that were touched (created, modified or deleted) since the previous call or since the start of the journal. Newly created
+     * directories are registered before returning, so the changes within those are only covered by their own paths.
+     *
+     * @param repository the repository of the working tree
+     * @return paths relative to the working tree (with {@code /} as separator) or {@link Optional#empty()} if the touched paths are not known
+     * @throws IOException if the cookie could not be written or if new directories could not be registered
+     */
+    Optional<Set<String>> pollTouchedPaths(Repository repository) throws IOException {
+        Path cookie = gitDir.resolve(COOKIE_PREFIX + cookieCounter++);
+        Set<String> touchedPaths = new HashSet<>();
+        List<Path> createdDirs = new ArrayList<>();
+        boolean complete;
+        Files.createFile(cookie);
+        try {
+            complete = pollUntilCookie(cookie, touchedPaths, createdDirs);
+        } finally {
+            Files.deleteIfExists(cookie);
+        }
+        if (!complete) {
+            // start over since even the registrations are in doubt
+            reregisterAll(repository);
+            return Optional.empty();
+        }
+        for (Path createdDir : createdDirs) {
+            registerTree(repository, Optional.of(toPathString(createdDir)));
+        }
+        return Optional.of(touchedPaths);
+    }
+
+    /**
+     * Registers the entire working tree from scratch. This is required whenever the set of tracked or ignored directories might have changed (e.g.
+     * after editing ignore rules or after {@code git add -f}), since only newly created directories are registered automatically.
+     *
+     * @param repository the repository of the working tree
+     * @throws IOException if the directories could not be registered
+     */
+    void reregisterAll(Repository repository) throws IOException {
+        keys.entrySet().removeIf(entry -> {
+            if (entry.getKey().equals(gitDir)) {
+                return false;
+            }
+            entry.getValue().cancel();
+            return true;
+        });
+        registerTree(repository, Optional.empty());
+    }
+
+    /**
+     * @return whether {@link #putStatus(String, File, FileStamp, Set)} was called at least once
+     */
+    boolean hasStatus() {
+        return status != null;
+    }
+
+    /**
+     * @param state the state of the repository and the configuration the status depends on (e.g. {@code HEAD})
+     * @return the status that was passed to {@link #putStatus(String, File, FileStamp, Set)} in case neither the given state nor the index file
+     *          have changed since
+     */
+    Optional<Set<String>> getStatus(String state) {
+        if (status == null || !state.equals(statusState) || indexStamp.isModified(indexFile)) {
+            return Optional.empty();
+        }
+        return Optional.of(status);
+    }
+
+    /**
+     * @param state the state of the repository and the configuration the status depends on (e.g. {@code HEAD})
+     * @param indexFile the index file
+     * @param indexStamp stamp of the index file, taken <em>before</em> the status was calculated
+     * @param status the uncommitted and/or untracked paths, relative to the working tree
+     */
+    void putStatus(String state, File indexFile, FileStamp indexStamp, Set<String> status) {
+        this.statusState = state;
+        this.indexFile = indexFile;
+        this.indexStamp = indexStamp;
+        this.status = status;
+    }
+
+    @Override
+    public void close() throws IOException {
+        keys.clear();
+        watchService.close();
+    }
+
+    private boolean pollUntilCookie(Path cookie, Set<String> touchedPaths, List<Path> createdDirs) {
+        boolean complete = true;
+        boolean cookieSeen = false;
+        long deadline = System.currentTimeMillis() + COOKIE_TIMEOUT_MILLIS;
+        WatchKey key;
+        try {
+            // after the cookie event, only drain what is already signalled (all of it happened before the cookie)
+            while ((key = cookieSeen ? watchService.poll() : watchService.poll(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS)) != null) {
+                Path dir = (Path) key.watchable();
+                if (!key.isValid()) {
+                    // the directory was deleted or renamed, which is covered by the event of its parent directory
+                    continue;
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        // a lost event of the Git directory is only relevant if it was the cookie (which then results in a timeout)
+                        complete &= dir.equals(gitDir);
+                        continue;
+                    }
+                    Path path = dir.resolve((Path) event.context());
+                    if (dir.equals(gitDir)) {
+                        cookieSeen |= path.equals(cookie);
+                    } else if (!path.startsWith(gitDir)) {
+                        touchedPaths.add(toPathString(path));
+                        if (event.kind() == ENTRY_DELETE) {
+                            // also covers renamed directories whose keys would otherwise report events for the old path
+                            cancelKeys(path);
+                        } else if (event.kind() == ENTRY_CREATE && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                            createdDirs.add(path);
+                        }
+                    }
+                }
+                if (!key.reset()) {
+                    keys.remove(dir, key);
+                }
+                if (!cookieSeen && System.currentTimeMillis() >= deadline) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return complete && cookieSeen;
+    }
+
+    private void cancelKeys(Path deletedPath) {
+        keys.entrySet().removeIf(entry -> {
+            if (entry.getKey().startsWith(deletedPath)) {
+                entry.getValue().cancel();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Registers the given directory (or the entire working tree) and all of its tracked and non-ignored subdirectories.
+     */
+    private void registerTree(Repository repository, Optional<String> dirPathString) throws IOException {
+        if (!dirPathString.isPresent()) {
+            register(workTree);
+        }
+        try (TreeWalk treeWalk = new TreeWalk(repository)) {
+            treeWalk.addTree(new DirCacheIterator(repository.readDirCache()));
+            FileTreeIterator workingTreeIterator = new FileTreeIterator(repository);
+            workingTreeIterator.setDirCacheIterator(treeWalk, 0);
+            treeWalk.addTree(workingTreeIterator);
+            dirPathString.ifPresent(pathString -> treeWalk.setFilter(PathFilter.create(pathString)));
+            treeWalk.setRecursive(false);
+            while (treeWalk.next()) {
+                WorkingTreeIterator entry = treeWalk.getTree(1, WorkingTreeIterator.class);
+                if (treeWalk.isSubtree() && entry != null && (treeWalk.getTree(0, DirCacheIterator.class) != null || !entry.isEntryIgnored())) {
+                    register(workTree.resolve(treeWalk.getPathString()).normalize());
+                    treeWalk.enterSubtree();
+                }
+            }
+        }
+    }
+
+    private void register(Path dir) throws IOException {
+        keys.put(dir, dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY));
+    }
+
+    private String toPathString(Path path) {
+        return workTree.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+}
@@ -1,11 +1,24 @@
 package com.vackosar.gitflowincrementalbuild.control.jgit;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 
+import org.eclipse.jgit.errors.TransportException;
+import org.eclipse.jgit.transport.CredentialsProvider;
 import org.eclipse.jgit.transport.JschConfigSessionFactory;
+import org.eclipse.jgit.transport.OpenSshConfig;
 import org.eclipse.jgit.transport.OpenSshConfig.Host;
+import org.eclipse.jgit.transport.RemoteSession;
+import org.eclipse.jgit.transport.URIish;
 import org.eclipse.jgit.util.FS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,11 +52,128 @@ import com.jcraft.jsch.agentproxy.RemoteIdentityRepository;
  * </ul>
  * Therefore this factory sets an individual {@link IdentityRepository} for each {@link Session} (for which no such wrapping happens). This repository is also
  * read-only to prevent undesired write access to the agent.
-  */
+ * <p>
+ * An instance of this factory is meant to be shared: Besides the agent connector and the {@link JSch} instances (known hosts etc.), it also keeps
+ * released sessions (per user, host and port) for up to {@value #DEFAULT_MAX_IDLE_MILLIS} ms (by default) so that subsequent operations (e.g.
+ * {@code ls-remote} and {@code fetch}) can skip the SSH handshake. Idle sessions can be closed explicitly via {@link #disconnectIdleSessions()}.
+ * </p>
+ * <p>
+ * Since {@link JschConfigSessionFactory#getSession(URIish, CredentialsProvider, FS, int)} holds the monitor of the factory during the entire SSH
+ * handshake, each new session is connected by a short-lived {@link ConnectingSessionFactory} (sharing the {@link JSch} instances of this factory).
+ * This way, concurrent fetches do not wait for each other. Since {@code getSession()} of this factory is therefore never called, this factory creates
+ * its {@link JSch} instances (and the {@link OpenSshConfig} they need) by itself, the same way {@link JschConfigSessionFactory} does.
+ * </p>
+ */
 public class AgentProxyAwareJschConfigSessionFactory extends JschConfigSessionFactory {
 
+    public static final long DEFAULT_MAX_IDLE_MILLIS = 60_000;
+
     private Logger logger = LoggerFactory.getLogger(AgentProxyAwareJschConfigSessionFactory.class);
 
+    private final long maxIdleMillis;
+    /** Guarded by itself, which is only held while taking sessions from or returning them to the pool (never while connecting or disconnecting). */
+    private final Map<String, Deque<PooledSession>> idleSessions = new HashMap<>();
+    /** Guards {@link #sshConfig}, {@link #defaultJSch} and {@link #jschByIdentityFile}. */
+    private final Object jschLock = new Object();
+    private OpenSshConfig sshConfig;
+    private JSch defaultJSch;
+    private final Map<String, JSch> jschByIdentityFile = new HashMap<>();
+
+    private Connector connector;
+    private boolean connectorFailureLogged;
+
+    public AgentProxyAwareJschConfigSessionFactory() {
+        this(DEFAULT_MAX_IDLE_MILLIS);
+    }
+
+    /**
+     * @param maxIdleMillis the time in milliseconds after which a released session is disconnected (at the latest with the next call of
+     *            {@link #getSession(URIish, CredentialsProvider, FS, int)})
+     */
+    public AgentProxyAwareJschConfigSessionFactory(long maxIdleMillis) {
+        this.maxIdleMillis = maxIdleMillis;
+    }
+
+    @Override
+    public RemoteSession getSession(URIish uri, CredentialsProvider credentialsProvider, FS fs, int tms) throws TransportException {
+        String key = toKey(uri);
+        PooledSession pooledSession = takeIdleSession(key);
+        if (pooledSession != null) {
+            logger.debug("Reusing SSH session for {}", key);
+            return pooledSession;
+        }
+        ConnectingSessionFactory connectingFactory = new ConnectingSessionFactory();
+        RemoteSession remoteSession = connectingFactory.getSession(uri, credentialsProvider, fs, tms);
+        Session session = connectingFactory.createdSession;
+        return session != null ? new PooledSession(key, remoteSession, session) : remoteSession;
+    }
+
+    @Override
+    public void releaseSession(RemoteSession remoteSession) {
+        if (remoteSession instanceof PooledSession && ((PooledSession) remoteSession).session.isConnected()) {
+            PooledSession pooledSession = (PooledSession) remoteSession;
+            pooledSession.releaseTime = System.currentTimeMillis();
+            synchronized (idleSessions) {
+                idleSessions.computeIfAbsent(pooledSession.key, key -> new ArrayDeque<>()).push(pooledSession);
+            }
+        } else {
+            remoteSession.disconnect();
+        }
+    }
+
+    /**
+     * Disconnects all sessions that are not in use.
+     */
+    public void disconnectIdleSessions() {
+        List<PooledSession> evictedSessions;
+        synchronized (idleSessions) {
+            evictedSessions = removeIdleSessions(Long.MAX_VALUE);
+        }
+        evictedSessions.forEach(PooledSession::disconnect);
+    }
+
+    private PooledSession takeIdleSession(String key) {
+        List<PooledSession> evictedSessions;
+        PooledSession connectedSession = null;
+        synchronized (idleSessions) {
+            evictedSessions = removeIdleSessions(System.currentTimeMillis());
+            Deque<PooledSession> sessions = idleSessions.get(key);
+            while (sessions != null && !sessions.isEmpty() && connectedSession == null) {
+                PooledSession pooledSession = sessions.pop();
+                if (pooledSession.session.isConnected()) {
+                    connectedSession = pooledSession;
+                }
+            }
+            if (sessions != null && sessions.isEmpty()) {
+                idleSessions.remove(key);
+            }
+        }
+        evictedSessions.forEach(PooledSession::disconnect);
+        return connectedSession;
+    }
+
+    private List<PooledSession> removeIdleSessions(long now) {
+        List<PooledSession> evictedSessions = new ArrayList<>();
+        for (Iterator<Deque<PooledSession>> dequeIterator = idleSessions.values().iterator(); dequeIterator.hasNext();) {
+            Deque<PooledSession> sessions = dequeIterator.next();
+            for (Iterator<PooledSession> sessionIterator = sessions.iterator(); sessionIterator.hasNext();) {
+                PooledSession pooledSession = sessionIterator.next();
+                if (now - pooledSession.releaseTime >= maxIdleMillis) {
+                    sessionIterator.remove();
+                    evictedSessions.add(pooledSession);
+                }
+            }
+            if (sessions.isEmpty()) {
+                dequeIterator.remove();
+            }
+        }
+        return evictedSessions;
+    }
+
+    private static String toKey(URIish uri) {
+        return uri.getUser() + "@" + uri.getHost() + ":" + uri.getPort();
+    }
+
     @Override
     protected void configure(Host hc, Session session) {
         // nothing to do
@@ -65,18 +195,115 @@ public class AgentProxyAwareJschConfigSessionFactory extends JschConfigSessionFa
         
         Session session = jSch.getSession(user, host, port);
         session.setIdentityRepository(new ReadOnlyIdentityRepository(allUnencryptedIdentities));
+        // an idle pooled session must not prevent the JVM from exiting
+        session.setDaemonThread(true);
         return session;
     }
 
-    private Collection<Identity> getIdentitiesFromAgentProxy() {
+    @Override
+    protected JSch getJSch(Host hc, FS fs) throws JSchException {
+        synchronized (jschLock) {
+            if (defaultJSch == null) {
+                sshConfig = OpenSshConfig.get(fs);
+                defaultJSch = createDefaultJSch(fs);
+                if (defaultJSch.getConfigRepository() == null) {
+                    defaultJSch.setConfigRepository(sshConfig);
+                }
+                for (Object identityName : defaultJSch.getIdentityNames()) {
+                    jschByIdentityFile.put((String) identityName, defaultJSch);
+                }
+            }
+            File identityFile = hc.getIdentityFile();
+            if (identityFile == null) {
+                return defaultJSch;
+            }
+            String identityPath = identityFile.getAbsolutePath();
+            JSch jsch = jschByIdentityFile.get(identityPath);
+            if (jsch == null) {
+                jsch = new JSch();
+                configureJSch(jsch);
+                if (jsch.getConfigRepository() == null) {
+                    jsch.setConfigRepository(defaultJSch.getConfigRepository());
+                }
+                jsch.setHostKeyRepository(defaultJSch.getHostKeyRepository());
+                jsch.addIdentity(identityPath);
+                jschByIdentityFile.put(identityPath, jsch);
+            }
+            return jsch;
+        }
+    }
+
+    private synchronized Collection<Identity> getIdentitiesFromAgentProxy() {
+        // the agent might have been (re)started or stopped since the previous session (e.g. in a long-lived JVM)
+        if (connector != null && !connector.isAvailable()) {
+            logger.debug("AgentProxy connector {} is no longer available", connector.getName());
+            connector = null;
+        }
+        if (connector == null) {
+            try {
+                connector = ConnectorFactory.getDefault().createConnector();
+            } catch(AgentProxyException e) {
+                if (!connectorFailureLogged) {
+                    connectorFailureLogged = true;
+                    logger.warn("AgentProxy setup failed, cannot read identities from agent", e);
+                } else {
+                    logger.debug("AgentProxy setup failed again", e);
+                }
+            }
+        }
+        return connector != null ? new RemoteIdentityRepository(connector).getIdentities() : new ArrayList<>();
+    }
+
+    /**
+     * Connects a single new session via {@link JschConfigSessionFactory#getSession(URIish, CredentialsProvider, FS, int)}, but creates the
+     * {@link Session} via the enclosing factory.
+     */
+    private class ConnectingSessionFactory extends JschConfigSessionFactory {
+
+        private Session createdSession;
+
+        @Override
+        protected void configure(Host hc, Session session) {
+            // nothing to do
+        }
+
+        @Override
+        protected JSch getJSch(Host hc, FS fs) throws JSchException {
+            return AgentProxyAwareJschConfigSessionFactory.this.getJSch(hc, fs);
+        }
+
+        @Override
+        protected Session createSession(Host hc, String user, String host, int port, FS fs) throws JSchException {
+            createdSession = AgentProxyAwareJschConfigSessionFactory.this.createSession(hc, user, host, port, fs);
+            return createdSession;
+        }
+    }
+
+    /**
+     * A {@link RemoteSession} that is returned to the pool instead of being disconnected when released.
+     */
+    private static class PooledSession implements RemoteSession {
 
-        Connector con = null;
-        try {
-            con = ConnectorFactory.getDefault().createConnector();
-        } catch(AgentProxyException e) {
-            logger.warn("AgentProxy setup failed, cannot read identities from agent", e);
+        private final String key;
+        private final RemoteSession delegate;
+        private final Session session;
+        private long releaseTime;
+
+        private PooledSession(String key, RemoteSession delegate, Session session) {
+            this.key = key;
+            this.delegate = delegate;
+            this.session = session;
+        }
+
+        @Override
+        public Process exec(String commandName, int timeout) throws IOException {
+            return delegate.exec(commandName, timeout);
+        }
+
+        @Override
+        public void disconnect() {
+            delegate.disconnect();
         }
-        return con != null ? new RemoteIdentityRepository(con).getIdentities() : new ArrayList<>();
     }
 
     private static class ReadOnlyIdentityRepository implements IdentityRepository {
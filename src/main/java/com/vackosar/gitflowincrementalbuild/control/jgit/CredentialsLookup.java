@@ -0,0 +1,23 @@
+package com.vackosar.gitflowincrementalbuild.control.jgit;
+
+import java.io.IOException;
+import java.net.PasswordAuthentication;
+
+import org.eclipse.jgit.transport.URIish;
+
+/**
+ * One link of the chain that is used by {@link HttpDelegatingCredentialsProvider} to find the credentials for a remote repository.
+ *
+ * @see CredentialsLookupChain
+ */
+@FunctionalInterface
+public interface CredentialsLookup {
+
+    /**
+     * @param uri the URI of the remote repository
+     * @return the credentials for the given URI or {@code null} if this lookup cannot provide any
+     * @throws IOException if the credentials could not be read
+     * @throws InterruptedException if interrupted while waiting for an external process
+     */
+    PasswordAuthentication lookup(URIish uri) throws IOException, InterruptedException;
+}
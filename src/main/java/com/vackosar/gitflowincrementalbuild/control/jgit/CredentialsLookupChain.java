@@ -0,0 +1,112 @@
+package com.vackosar.gitflowincrementalbuild.control.jgit;
+
+import java.io.IOException;
+import java.net.PasswordAuthentication;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.jgit.lib.Config;
+import org.eclipse.jgit.transport.URIish;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asks multiple {@link CredentialsLookup}s one after another until one of them provides the credentials.
+ * <p>
+ * The default chain (see {@link #create(Config, Path, Path, Map, Map)}) resolves the credentials in pure Java, if possible:
+ * </p>
+ * <ol>
+ * <li>{@link StoreFileCredentialsLookup} for each configured {@code store} credential helper</li>
+ * <li>{@link NativeGitCredentialsLookup} if any other credential helper (or any URL specific credential configuration) is configured</li>
+ * <li>{@link EnvironmentCredentialsLookup}</li>
+ * <li>{@link NetrcCredentialsLookup}</li>
+ * <li>{@link NativeGitCredentialsLookup} if no other credential helper is configured but an askpass program ({@code GIT_ASKPASS},
+ * {@code SSH_ASKPASS} or {@code core.askPass}), as native Git would then ask that program</li>
+ * </ol>
+ */
+public class CredentialsLookupChain implements CredentialsLookup {
+
+    private static final String CREDENTIAL_SECTION = "credential";
+
+    /** The environment variables that native Git consults (in this order, before {@code core.askPass}) for the askpass program. */
+    static final String[] ASKPASS_VARIABLES = { "GIT_ASKPASS", "SSH_ASKPASS" };
+
+    private Logger logger = LoggerFactory.getLogger(CredentialsLookupChain.class);
+
+    private final List<CredentialsLookup> lookups;
+
+    public CredentialsLookupChain(List<CredentialsLookup> lookups) {
+        this.lookups = lookups;
+    }
+
+    /**
+     * @param gitConfig the Git configuration (of the repository, including user and system configuration)
+     * @param projectDir the directory in which native Git is invoked (if required)
+     * @param userHome the home directory of the user
+     * @param environment the environment variables
+     * @param additionalNativeGitEnvironment additional environment entries for native Git (test only)
+     * @return the default chain for the given configuration
+     */
+    public static CredentialsLookupChain create(Config gitConfig, Path projectDir, Path userHome, Map<String, String> environment,
+            Map<String, String> additionalNativeGitEnvironment) {
+        List<CredentialsLookup> lookups = new ArrayList<>();
+        // URL specific configuration and useHttpPath are left to native Git
+        boolean nativeGitRequired = !gitConfig.getSubsections(CREDENTIAL_SECTION).isEmpty()
+                || gitConfig.getBoolean(CREDENTIAL_SECTION, "useHttpPath", false);
+        for (String helper : getHelpers(gitConfig)) {
+            Optional<StoreFileCredentialsLookup> storeLookup = StoreFileCredentialsLookup.forHelper(helper, userHome, environment);
+            if (storeLookup.isPresent()) {
+                lookups.add(storeLookup.get());
+            } else {
+                nativeGitRequired = true;
+            }
+        }
+        if (nativeGitRequired) {
+            // the helpers take precedence, but if they cannot provide the credentials, the subsequent lookups are still consulted
+            lookups.add(new NativeGitCredentialsLookup(projectDir, additionalNativeGitEnvironment, true));
+        }
+        lookups.add(new EnvironmentCredentialsLookup(environment));
+        lookups.add(new NetrcCredentialsLookup(userHome, environment));
+        if (!nativeGitRequired && isAskPassConfigured(gitConfig, environment)) {
+            lookups.add(new NativeGitCredentialsLookup(projectDir, additionalNativeGitEnvironment));
+        }
+        return new CredentialsLookupChain(lookups);
+    }
+
+    private static boolean isAskPassConfigured(Config gitConfig, Map<String, String> environment) {
+        for (String variable : ASKPASS_VARIABLES) {
+            String value = environment.get(variable);
+            if (value != null && !value.isEmpty()) {
+                return true;
+            }
+        }
+        String askPass = gitConfig.getString("core", null, "askPass");
+        return askPass != null && !askPass.isEmpty();
+    }
+
+    /**
+     * @return the effective credential helpers (an empty value resets the list, just like in native Git)
+     */
+    private static List<String> getHelpers(Config gitConfig) {
+        List<String> helpers = new ArrayList<>();
+        Collections.addAll(helpers, gitConfig.getStringList(CREDENTIAL_SECTION, null, "helper"));
+        int lastReset = helpers.lastIndexOf("");
+        return lastReset < 0 ? helpers : helpers.subList(lastReset + 1, helpers.size());
+    }
+
+    @Override
+    public PasswordAuthentication lookup(URIish uri) throws IOException, InterruptedException {
+        for (CredentialsLookup lookup : lookups) {
+            PasswordAuthentication credentials = lookup.lookup(uri);
+            if (credentials != null) {
+                logger.debug("Found credentials for {} via {}", uri, lookup.getClass().getSimpleName());
+                return credentials;
+            }
+        }
+        return null;
+    }
+}
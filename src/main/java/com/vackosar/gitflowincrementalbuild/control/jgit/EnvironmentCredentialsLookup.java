@@ -0,0 +1,42 @@
+package com.vackosar.gitflowincrementalbuild.control.jgit;
+
+import java.net.PasswordAuthentication;
+import java.util.Map;
+
+import org.eclipse.jgit.transport.URIish;
+
+/**
+ * Provides the credentials from the environment variables {@value #USERNAME_VARIABLE} and {@value #PASSWORD_VARIABLE} (the latter can also be a token),
+ * but only for the host given via {@value #HOST_VARIABLE} (optionally including the port, e.g. {@code git.example.org:8443}). All three variables need
+ * to be set, so the credentials are never sent to any other remote.
+ */
+public class EnvironmentCredentialsLookup implements CredentialsLookup {
+
+    public static final String HOST_VARIABLE = "GIB_HTTP_HOST";
+    public static final String USERNAME_VARIABLE = "GIB_HTTP_USERNAME";
+    public static final String PASSWORD_VARIABLE = "GIB_HTTP_PASSWORD";
+
+    private final Map<String, String> environment;
+
+    public EnvironmentCredentialsLookup(Map<String, String> environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public PasswordAuthentication lookup(URIish uri) {
+        String host = environment.get(HOST_VARIABLE);
+        String username = environment.get(USERNAME_VARIABLE);
+        String password = environment.get(PASSWORD_VARIABLE);
+        if (host == null || username == null || password == null || !matchesHost(host, uri)) {
+            return null;
+        }
+        return new PasswordAuthentication(username, password.toCharArray());
+    }
+
+    private static boolean matchesHost(String host, URIish uri) {
+        if (uri.getHost() == null) {
+            return false;
+        }
+        return host.equalsIgnoreCase(uri.getHost()) || (uri.getPort() != -1 && host.equalsIgnoreCase(uri.getHost() + ":" + uri.getPort()));
+    }
+}
@@ -27,9 +27,17 @@ public class GitProvider {
     private Logger logger = LoggerFactory.getLogger(GitProvider.class);
 
     private Git git;
+    private boolean keepOpen;
+
+    /** {@link Git} instance of a previous build that was kept open due to {@link Configuration#reuseAcrossBuilds}. */
+    private Git reusableGit;
 
     /**
      * Returns a {@link Git} instance which is constructed when first called. Subsequent calls will return the same instance.
+     * <p>
+     * If {@link Configuration#reuseAcrossBuilds} is enabled, the instance of a previous build (in the same JVM) is reused if it belongs to the same
+     * Git directory.
+     * </p>
      *
      * @param config the configuration
      * @return a {@link Git} instance
@@ -37,7 +45,16 @@ public class GitProvider {
     public Git get(Configuration config) {
         if (git == null) {
             try {
-                git = setupGit(config);
+                FileRepositoryBuilder builder = findGitDir(config);
+                if (reusableGit != null && reusableGit.getRepository().getDirectory().equals(builder.getGitDir())) {
+                    logger.debug("Reusing Git repository {} of previous build.", builder.getGitDir());
+                    git = reusableGit;
+                } else {
+                    closeReusable();
+                    git = Git.wrap(builder.build());
+                }
+                reusableGit = null;
+                keepOpen = config.reuseAcrossBuilds;
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
             }
@@ -45,14 +62,35 @@ public class GitProvider {
         return git;
     }
 
+    /**
+     * Closes the {@link Git} instance returned by {@link #get(Configuration)}, unless {@link Configuration#reuseAcrossBuilds} is enabled. In the latter
+     * case, the instance is kept open for the next build, but the next call to {@link #get(Configuration)} will check whether it can be reused.
+     */
     public void close() {
         if (git != null) {
-            git.close();
-            git.getRepository().close();
+            if (keepOpen) {
+                reusableGit = git;
+            } else {
+                close(git);
+            }
+            git = null;
         }
     }
 
-    private Git setupGit(Configuration config) throws IOException {
+    private void closeReusable() {
+        if (reusableGit != null) {
+            logger.debug("Closing Git repository {} of previous build.", reusableGit.getRepository().getDirectory());
+            close(reusableGit);
+            reusableGit = null;
+        }
+    }
+
+    private static void close(Git git) {
+        git.close();
+        git.getRepository().close();
+    }
+
+    private FileRepositoryBuilder findGitDir(Configuration config) {
         final FileRepositoryBuilder builder = new FileRepositoryBuilder();
         File pomDir = config.currentProject.getBasedir();
         builder.findGitDir(pomDir);
@@ -69,7 +107,7 @@ public class GitProvider {
         if (isWorktree(builder)) {
             throw new SkipExecutionException(UNSUPPORTED_WORKTREE + builder.getGitDir());
         }
-        return Git.wrap(builder.build());
+        return builder;
     }
 
     private static boolean isWorktree(FileRepositoryBuilder builder) {
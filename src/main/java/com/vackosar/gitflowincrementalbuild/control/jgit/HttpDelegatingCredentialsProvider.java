@@ -1,37 +1,38 @@
 package com.vackosar.gitflowincrementalbuild.control.jgit;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.net.PasswordAuthentication;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.eclipse.jgit.errors.UnsupportedCredentialItem;
+import org.eclipse.jgit.lib.Config;
 import org.eclipse.jgit.transport.CredentialItem;
 import org.eclipse.jgit.transport.CredentialsProvider;
 import org.eclipse.jgit.transport.URIish;
 import org.eclipse.jgit.util.FS;
-import org.eclipse.jgit.util.FS.ExecutionResult;
-import org.eclipse.jgit.util.TemporaryBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * JGit-{@link CredentialsProvider} for HTTP(S) that is delegating all credential requests to native Git via {@code git credential fill}. This will consult
- * all configured credential helpers, if any (for the repo, the user and the system). Such a helper might query the user for the credentials in case it
- * cannot yet provide them. However, the assumption here is that the credentials should already exist. Therefore this provider does <i>not</i> give feedback
- * to native Git via {@code git credential approve} or {@code git credential verify}.
+ * JGit-{@link CredentialsProvider} for HTTP(S) that is delegating all credential requests to a {@link CredentialsLookupChain}. That chain reads the
+ * credentials in pure Java (e.g. from the files of the {@code store} credential helper) if possible and falls back to native Git via
+ * {@code git credential fill} if other credential helpers or an askpass program are configured (see {@link NativeGitCredentialsLookup}).
  * <p>
  * This provider will suppress any console input requests (see
  * <a href="https://git-scm.com/docs/git#Documentation/git.txt-codeGITTERMINALPROMPTcode">GIT_TERMINAL_PROMPT</a>).
  * </p>
+ * <p>
+ * The credentials are cached until {@link #resetAll()} or, if a cache TTL is given, until they expire. The latter allows to reuse a provider across
+ * builds (see {@link #resetExpired()}).
+ * </p>
  *
  * @see <a href="https://git-scm.com/docs/git-credential">Git documentation: git credential</a>
  */
@@ -40,13 +41,37 @@ public class HttpDelegatingCredentialsProvider extends CredentialsProvider {
     private Logger logger = LoggerFactory.getLogger(HttpDelegatingCredentialsProvider.class);
 
     private final Path projectDir;
+    private final Supplier<? extends Config> gitConfig;
     private final Map<String, String> additionalNativeGitEnvironment;
+    private final long cacheTtlMillis;
 
-    private final Map<URIish, CredentialsPair> credentials = new HashMap<>();
+    // concurrent since multiple remotes might be fetched concurrently
+    private final Map<URIish, CredentialsPair> credentials = new ConcurrentHashMap<>();
+
+    public HttpDelegatingCredentialsProvider(Path projectDir, Supplier<? extends Config> gitConfig, Map<String, String> additionalNativeGitEnvironment) {
+        this(projectDir, gitConfig, additionalNativeGitEnvironment, 0);
+    }
 
-    public HttpDelegatingCredentialsProvider(Path projectDir, Map<String, String> additionalNativeGitEnvironment) {
+    /**
+     * @param projectDir the directory in which native Git is invoked
+     * @param gitConfig supplies the (current) Git configuration of the repository that determines the credential helpers
+     * @param additionalNativeGitEnvironment additional environment entries for native Git (test only)
+     * @param cacheTtlMillis the time in milliseconds after which looked up credentials expire, 0 means never
+     */
+    public HttpDelegatingCredentialsProvider(Path projectDir, Supplier<? extends Config> gitConfig, Map<String, String> additionalNativeGitEnvironment,
+            long cacheTtlMillis) {
         this.projectDir = projectDir;
+        this.gitConfig = gitConfig;
         this.additionalNativeGitEnvironment = additionalNativeGitEnvironment;
+        this.cacheTtlMillis = cacheTtlMillis;
+    }
+
+    public Path getProjectDir() {
+        return projectDir;
+    }
+
+    public long getCacheTtlMillis() {
+        return cacheTtlMillis;
     }
 
     @Override
@@ -69,16 +94,12 @@ public class HttpDelegatingCredentialsProvider extends CredentialsProvider {
             return false;
         }
 
-        CredentialsPair credentialsPair = credentials.computeIfAbsent(uri, u -> {
-            try {
-                return lookupCredentials(uri);
-            } catch (IOException | InterruptedException | RuntimeException e) {
-                logger.warn("Failed to look up credentials via 'git credential fill' for: " + uri, e);
-                return null;
+        CredentialsPair credentialsPair = credentials.get(uri);
+        if (credentialsPair == null || credentialsPair.isExpired()) {
+            credentialsPair = lookupAndCacheCredentials(uri, credentialsPair);
+            if (credentialsPair == null) {
+                return false;
             }
-        });
-        if (credentialsPair == null) {
-            return false;
         }
 
         // map extracted credentials to CredentialItems, see also: org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider
@@ -98,87 +119,100 @@ public class HttpDelegatingCredentialsProvider extends CredentialsProvider {
     }
 
     @Override
-    // see also: org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider.clear()
     public void reset(URIish uri) {
-        Optional.ofNullable(credentials.remove(uri))
-                .ifPresent(credPair -> {
-                    credPair.username = null;
-                    Arrays.fill(credPair.password, (char) 0);
-                    credPair.password = null;
-                });
+        Optional.ofNullable(credentials.remove(uri)).ifPresent(CredentialsPair::clear);
     }
 
     public void resetAll() {
         new HashSet<>(credentials.keySet()).forEach(this::reset);
     }
 
-    private CredentialsPair lookupCredentials(URIish uri) throws IOException, InterruptedException {
-        // utilize JGit command execution capabilities
-        FS fs = FS.detect();
-        ProcessBuilder procBuilder = fs.runInShell("git", new String[] {"credential", "fill"});
-
-        // prevent native git from requesting console input (not implemented)
-        procBuilder.environment().put("GIT_TERMINAL_PROMPT", "0");
+    /**
+     * Resets only the expired credentials (if a cache TTL was given), so that no credentials are kept in memory longer than necessary.
+     */
+    public void resetExpired() {
+        credentials.entrySet().stream()
+                .filter(entry -> entry.getValue().isExpired())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList())
+                .forEach(this::reset);
+    }
 
-        // add additional environment entries, if present (test only)
-        if (!additionalNativeGitEnvironment.isEmpty()) {
-            procBuilder.environment().putAll(additionalNativeGitEnvironment);
+    /**
+     * Looks up the credentials <i>outside</i> of {@link #credentials} (the lookup might start native Git processes and can take a while), then caches
+     * them unless another thread has cached valid credentials for the same URI in the meantime.
+     *
+     * @param expiredPair the expired credentials that are to be replaced, if any
+     * @return the cached credentials or {@code null} if none could be found
+     */
+    private CredentialsPair lookupAndCacheCredentials(URIish uri, CredentialsPair expiredPair) {
+        CredentialsPair lookedUpPair = lookupCredentialsOrNull(uri);
+        if (lookedUpPair == null) {
+            if (expiredPair != null && credentials.remove(uri, expiredPair)) {
+                expiredPair.clear();
+            }
+            return null;
         }
-        procBuilder.directory(projectDir.toFile());
-
-        ExecutionResult result = fs.execute(procBuilder, new ByteArrayInputStream(buildGitCommandInput(uri).getBytes(Charset.defaultCharset())));
-        if (result.getRc() != 0) {
-            logger.info(bufferToString(result.getStdout()));
-            logger.error(bufferToString(result.getStderr()));
-            throw new IllegalStateException("Native Git invocation failed with return code " + result.getRc()
-                    + ". See previous log output for more details.");
+        CredentialsPair[] replacedPair = new CredentialsPair[1];
+        CredentialsPair cachedPair = credentials.compute(uri, (key, existingPair) -> {
+            if (existingPair != null && !existingPair.isExpired()) {
+                return existingPair;
+            }
+            replacedPair[0] = existingPair;
+            return lookedUpPair;
+        });
+        if (cachedPair != lookedUpPair) {
+            lookedUpPair.clear();
         }
-
-        return extractCredentials(bufferToString(result.getStdout()));
-    }
-
-    // build input for "git credential fill" as per https://git-scm.com/docs/git-credential#_typical_use_of_git_credential
-    private String buildGitCommandInput(URIish uri) {
-        StringBuilder builder = new StringBuilder();
-        builder.append("protocol=").append(uri.getScheme()).append("\n");
-        builder.append("host=").append(uri.getHost());
-        if (uri.getPort() != -1) {
-            builder.append(":").append(uri.getPort());
+        if (replacedPair[0] != null) {
+            replacedPair[0].clear();
         }
-        builder.append("\n");
-        Optional.ofNullable(uri.getPath())
-                .map(path -> path.startsWith("/") ? path.substring(1) : path)
-                .ifPresent(path -> builder.append("path=").append(path).append("\n"));
-        Optional.ofNullable(uri.getUser())
-                .ifPresent(user -> builder.append("username=").append(user).append("\n"));
-        return builder.toString();
+        return cachedPair;
     }
 
-    private String bufferToString(TemporaryBuffer buffer) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        buffer.writeTo(baos, null);
-        return baos.toString(Charset.defaultCharset().name());
+    private CredentialsPair lookupCredentialsOrNull(URIish uri) {
+        try {
+            return lookupCredentials(uri);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            logger.warn("Failed to look up credentials for: " + uri, e);
+            return null;
+        }
     }
 
-    private CredentialsPair extractCredentials(String nativeGitOutput) {
-        Matcher matcher = Pattern.compile("(?<=username=).+|(?<=password=).+").matcher(nativeGitOutput);
-        if (!matcher.find()) {
-            throw new IllegalStateException("Could not find username in native Git output");
-        }
-        String username = matcher.group();
-        if (!matcher.find()) {
-            throw new IllegalStateException("Could not find password in native Git output");
+    private CredentialsPair lookupCredentials(URIish uri) throws IOException, InterruptedException {
+        Map<String, String> environment = new HashMap<>(System.getenv());
+        environment.putAll(additionalNativeGitEnvironment);
+        PasswordAuthentication credentials = CredentialsLookupChain.create(gitConfig.get(), projectDir, FS.DETECTED.userHome().toPath(), environment,
+                additionalNativeGitEnvironment).lookup(uri);
+        if (credentials == null) {
+            return null;
         }
-        char[] password = matcher.group().toCharArray();
 
         CredentialsPair credPair = new CredentialsPair();
-        credPair.username = username;
-        credPair.password = password;
+        credPair.username = credentials.getUserName();
+        // note: this is the array of PasswordAuthentication, not a copy
+        credPair.password = credentials.getPassword();
+        credPair.expiryTime = cacheTtlMillis > 0 ? System.currentTimeMillis() + cacheTtlMillis : Long.MAX_VALUE;
         return credPair;
     }
 
     private static class CredentialsPair {
         private String username;
         private char[] password;
+        private long expiryTime;
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiryTime;
+        }
+
+        // see also: org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider.clear()
+        private void clear() {
+            username = null;
+            Arrays.fill(password, (char) 0);
+            password = null;
+        }
     }
 }
\ No newline at end of file
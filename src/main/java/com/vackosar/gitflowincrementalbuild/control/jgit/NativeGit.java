@@ -0,0 +1,52 @@
+package com.vackosar.gitflowincrementalbuild.control.jgit;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.util.FS;
+import org.eclipse.jgit.util.SystemReader;
+
+/**
+ * Prepares invocations of native Git that never request console input (see
+ * <a href="https://git-scm.com/docs/git#Documentation/git.txt-codeGITTERMINALPROMPTcode">GIT_TERMINAL_PROMPT</a>).
+ */
+public final class NativeGit {
+
+    private NativeGit() {
+    }
+
+    /**
+     * Creates a {@link ProcessBuilder} that executes {@code git} directly, without spawning a shell first. Only on Windows, the shell of the given
+     * {@link FS} is used since {@code git} might be a script there.
+     *
+     * @param fs the file system abstraction of JGit
+     * @param directory the working directory of the process
+     * @param additionalEnvironment additional environment entries (test only)
+     * @param args the arguments for {@code git}
+     * @return a new {@link ProcessBuilder}
+     */
+    public static ProcessBuilder processBuilder(FS fs, Path directory, Map<String, String> additionalEnvironment, String... args) {
+        ProcessBuilder procBuilder;
+        if (SystemReader.getInstance().isWindows()) {
+            procBuilder = fs.runInShell("git", args);
+        } else {
+            List<String> command = new ArrayList<>(args.length + 1);
+            command.add("git");
+            command.addAll(Arrays.asList(args));
+            procBuilder = new ProcessBuilder(command);
+        }
+
+        // prevent native git from requesting console input (not implemented)
+        procBuilder.environment().put("GIT_TERMINAL_PROMPT", "0");
+
+        // add additional environment entries, if present (test only)
+        if (!additionalEnvironment.isEmpty()) {
+            procBuilder.environment().putAll(additionalEnvironment);
+        }
+        procBuilder.directory(directory.toFile());
+        return procBuilder;
+    }
+}
@@ -0,0 +1,114 @@
+package com.vackosar.gitflowincrementalbuild.control.jgit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.PasswordAuthentication;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.jgit.transport.URIish;
+import org.eclipse.jgit.util.FS;
+import org.eclipse.jgit.util.FS.ExecutionResult;
+import org.eclipse.jgit.util.TemporaryBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queries the credentials from native Git via {@code git credential fill}. This will consult all configured credential helpers, if any (for the repo, the
+ * user and the system). Such a helper might query the user for the credentials in case it cannot yet provide them. However, the assumption here is that
+ * the credentials should already exist. Therefore this lookup does <i>not</i> give feedback to native Git via {@code git credential approve} or
+ * {@code git credential verify}.
+ *
+ * @see <a href="https://git-scm.com/docs/git-credential">Git documentation: git credential</a>
+ */
+public class NativeGitCredentialsLookup implements CredentialsLookup {
+
+    private Logger logger = LoggerFactory.getLogger(NativeGitCredentialsLookup.class);
+
+    private final Path projectDir;
+    private final Map<String, String> additionalNativeGitEnvironment;
+    private final boolean optional;
+
+    public NativeGitCredentialsLookup(Path projectDir, Map<String, String> additionalNativeGitEnvironment) {
+        this(projectDir, additionalNativeGitEnvironment, false);
+    }
+
+    /**
+     * @param projectDir the directory in which native Git is invoked
+     * @param additionalNativeGitEnvironment additional environment entries for native Git (test only)
+     * @param optional whether a failed invocation (e.g. because no helper has the credentials and prompting is disabled) just yields no credentials
+     *            instead of an exception, so that subsequent lookups are consulted
+     */
+    public NativeGitCredentialsLookup(Path projectDir, Map<String, String> additionalNativeGitEnvironment, boolean optional) {
+        this.projectDir = projectDir;
+        this.additionalNativeGitEnvironment = additionalNativeGitEnvironment;
+        this.optional = optional;
+    }
+
+    @Override
+    public PasswordAuthentication lookup(URIish uri) throws IOException, InterruptedException {
+        // utilize JGit command execution capabilities
+        FS fs = FS.detect();
+        ProcessBuilder procBuilder = NativeGit.processBuilder(fs, projectDir, additionalNativeGitEnvironment, "credential", "fill");
+
+        ExecutionResult result = fs.execute(procBuilder, new ByteArrayInputStream(buildGitCommandInput(uri).getBytes(Charset.defaultCharset())));
+        if (result.getRc() != 0 && optional) {
+            logger.debug("Native Git did not provide credentials (return code {}): {}", result.getRc(), bufferToString(result.getStderr()));
+            return null;
+        }
+        if (result.getRc() != 0) {
+            logger.info(bufferToString(result.getStdout()));
+            logger.error(bufferToString(result.getStderr()));
+            throw new IllegalStateException("Native Git invocation failed with return code " + result.getRc()
+                    + ". See previous log output for more details.");
+        }
+
+        return extractCredentials(bufferToString(result.getStdout()));
+    }
+
+    // build input for "git credential fill" as per https://git-scm.com/docs/git-credential#_typical_use_of_git_credential
+    private String buildGitCommandInput(URIish uri) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("protocol=").append(uri.getScheme()).append("\n");
+        builder.append("host=").append(uri.getHost());
+        if (uri.getPort() != -1) {
+            builder.append(":").append(uri.getPort());
+        }
+        builder.append("\n");
+        Optional.ofNullable(uri.getPath())
+                .map(path -> path.startsWith("/") ? path.substring(1) : path)
+                .ifPresent(path -> builder.append("path=").append(path).append("\n"));
+        Optional.ofNullable(uri.getUser())
+                .ifPresent(user -> builder.append("username=").append(user).append("\n"));
+        return builder.toString();
+    }
+
+    private String bufferToString(TemporaryBuffer buffer) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        buffer.writeTo(baos, null);
+        return baos.toString(Charset.defaultCharset().name());
+    }
+
+    private PasswordAuthentication extractCredentials(String nativeGitOutput) {
+        Matcher matcher = Pattern.compile("(?<=username=).+|(?<=password=).+").matcher(nativeGitOutput);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Could not find username in native Git output");
+        }
+        String username = matcher.group();
+        if (!matcher.find()) {
+            throw new IllegalStateException("Could not find password in native Git output");
+        }
+        char[] password = matcher.group().toCharArray();
+
+        PasswordAuthentication credentials = new PasswordAuthentication(username, password);
+        // PasswordAuthentication holds a copy
+        Arrays.fill(password, (char) 0);
+        return credentials;
+    }
+}
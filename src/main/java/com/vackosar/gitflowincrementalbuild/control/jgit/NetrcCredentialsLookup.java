@@ -0,0 +1,41 @@
+package com.vackosar.gitflowincrementalbuild.control.jgit;
+
+import java.io.File;
+import java.net.PasswordAuthentication;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.eclipse.jgit.transport.NetRC;
+import org.eclipse.jgit.transport.NetRC.NetRCEntry;
+import org.eclipse.jgit.transport.URIish;
+
+/**
+ * Provides the credentials from {@code ~/.netrc} (or {@code ~/_netrc} or the file given via the environment variable {@code NETRC}), which is also
+ * consulted by native Git (via curl) for HTTP(S).
+ */
+public class NetrcCredentialsLookup implements CredentialsLookup {
+
+    private final File netrcFile;
+
+    public NetrcCredentialsLookup(Path userHome, Map<String, String> environment) {
+        String netrcVariable = environment.get("NETRC");
+        if (netrcVariable != null) {
+            netrcFile = new File(netrcVariable);
+        } else {
+            File dotNetrc = userHome.resolve(".netrc").toFile();
+            netrcFile = dotNetrc.isFile() ? dotNetrc : userHome.resolve("_netrc").toFile();
+        }
+    }
+
+    @Override
+    public PasswordAuthentication lookup(URIish uri) {
+        if (!netrcFile.isFile()) {
+            return null;
+        }
+        NetRCEntry entry = new NetRC(netrcFile).getEntry(uri.getHost());
+        if (entry == null || entry.login == null || entry.password == null) {
+            return null;
+        }
+        return new PasswordAuthentication(entry.login, entry.password);
+    }
+}
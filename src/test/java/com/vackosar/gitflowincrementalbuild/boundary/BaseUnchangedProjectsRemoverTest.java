@@ -100,6 +100,7 @@ public abstract class BaseUnchangedProjectsRemoverTest {
         when(mavenSessionMock.getProjects()).thenReturn(projects);
         when(mavenSessionMock.getAllProjects()).thenReturn(allProjects);
         when(mavenSessionMock.getProjectDependencyGraph()).thenReturn(projectDependencyGraphMock);
+        when(projectDependencyGraphMock.getSortedProjects()).thenReturn(allProjects);
         when(changedProjectsMock.get(any(Configuration.class))).thenReturn(changedProjects);
 
         when(mavenSessionMock.getGoals()).thenReturn(new ArrayList<>());
@@ -139,12 +140,15 @@ public abstract class BaseUnchangedProjectsRemoverTest {
         return newModuleMock;
     }
 
+    // note: the transitive projects are also returned as direct projects, which does not change the transitive closure
     protected void setUpstreamProjects(MavenProject module, MavenProject... upstreamModules) {
         when(projectDependencyGraphMock.getUpstreamProjects(module, true)).thenReturn(Arrays.asList(upstreamModules));
+        when(projectDependencyGraphMock.getUpstreamProjects(module, false)).thenReturn(Arrays.asList(upstreamModules));
     }
 
     protected void setDownstreamProjects(MavenProject module, MavenProject... downstreamModules) {
         when(projectDependencyGraphMock.getDownstreamProjects(module, true)).thenReturn(Arrays.asList(downstreamModules));
+        when(projectDependencyGraphMock.getDownstreamProjects(module, false)).thenReturn(Arrays.asList(downstreamModules));
     }
 
     protected void addGibProperty(Property property, String value) {
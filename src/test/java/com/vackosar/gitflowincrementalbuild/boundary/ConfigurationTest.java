@@ -27,6 +27,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 
 import com.vackosar.gitflowincrementalbuild.SystemPropertiesResetExtension;
 import com.vackosar.gitflowincrementalbuild.boundary.Configuration.BuildUpstreamMode;
@@ -119,6 +125,25 @@ public class ConfigurationTest {
         assertThat(configuration.disableIfBranchRegex).isNull();
     }
 
+    @Test
+    public void disable_invalidProperty() {
+        System.setProperty(Property.disable.prefixedName(), "true");
+        System.setProperty(Property.PREFIX + "invalid", "invalid");
+        Logger propertyLogger = (Logger) LoggerFactory.getLogger(Property.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        propertyLogger.addAppender(appender);
+
+        try {
+            Configuration configuration = new Configuration(mavenSessionMock);
+
+            assertThat(configuration.disable).isTrue();
+            assertThat(appender.list).noneMatch(event -> event.getLevel().isGreaterOrEqual(Level.WARN));
+        } finally {
+            propertyLogger.detachAppender(appender);
+        }
+    }
+
     @Test
     public void disable_projectProperties() {
         projectProperties.put(Property.disable.prefixedName(), "true");
@@ -184,6 +209,25 @@ public class ConfigurationTest {
                 .withCauseExactlyInstanceOf(PatternSyntaxException.class);
     }
 
+    @Test
+    public void fetchTimeout_invalid() {
+        System.setProperty(Property.fetchTimeout.prefixedName(), "10s");
+
+        assertThatIllegalArgumentException().isThrownBy(() -> new Configuration(mavenSessionMock))
+                .withMessageContaining(Property.fetchTimeout.prefixedName())
+                .withMessageContaining("10s")
+                .withCauseExactlyInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    public void credentialsCacheTtl_invalid() {
+        projectProperties.put(Property.credentialsCacheTtl.prefixedName(), "");
+
+        assertThatIllegalArgumentException().isThrownBy(() -> new Configuration(mavenSessionMock))
+                .withMessageContaining(Property.credentialsCacheTtl.prefixedName())
+                .withCauseExactlyInstanceOf(NumberFormatException.class);
+    }
+
     // ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // tests for configuration.buildUpstreamMode (which is calculated from two(!) properties: buildUpstream and buildUpstreamMode)
 
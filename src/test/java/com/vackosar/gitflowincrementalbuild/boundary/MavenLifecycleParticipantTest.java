@@ -1,5 +1,6 @@
 package com.vackosar.gitflowincrementalbuild.boundary;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -13,6 +14,9 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Properties;
 
 import org.apache.maven.MavenExecutionException;
@@ -25,6 +29,7 @@ import org.eclipse.jgit.lib.Repository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -182,6 +187,40 @@ public class MavenLifecycleParticipantTest {
         verifyNoInteractions(unchangedProjectsRemoverMock);
     }
 
+    @Test
+    public void logMetrics() throws Exception {
+        projectProperties.setProperty(Property.logMetrics.prefixedName(), "true");
+
+        underTest.afterProjectsRead(mavenSessionMock);
+
+        verify(loggerSpy).info(contains("metrics:"), contains("branchDiff"));
+    }
+
+    @Test
+    public void logMetricsTo(@TempDir Path tempDir) throws Exception {
+        Path logFilePath = tempDir.resolve("gib-metrics.json");
+        projectProperties.setProperty(Property.logMetricsTo.prefixedName(), logFilePath.toString());
+
+        underTest.afterProjectsRead(mavenSessionMock);
+
+        assertThat(new String(Files.readAllBytes(logFilePath), StandardCharsets.UTF_8))
+                .contains("\"totalMillis\": ")
+                .contains("\"branchDiff\": 0")
+                .contains("\"changedModules\": 0");
+    }
+
+    @Test
+    public void logMetricsTo_onRuntimeException(@TempDir Path tempDir) throws Exception {
+        Path logFilePath = tempDir.resolve("gib-metrics.json");
+        projectProperties.setProperty(Property.logMetricsTo.prefixedName(), logFilePath.toString());
+        RuntimeException runtimeException = new RuntimeException("FAIL !!!");
+        doThrow(runtimeException).when(unchangedProjectsRemoverMock).act(any(Configuration.class));
+
+        assertThatExceptionOfType(MavenExecutionException.class).isThrownBy(() -> underTest.afterProjectsRead(mavenSessionMock));
+
+        assertThat(logFilePath).exists();
+    }
+
     private void mockCurrentBranch(String branchName) throws IOException {
         Git git = mock(Git.class);
         Repository repository = mock(Repository.class);
@@ -0,0 +1,137 @@
+package com.vackosar.gitflowincrementalbuild.boundary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+
+public class ReactorIndexTest {
+
+    private final MavenProject first = new MavenProject();
+    private final MavenProject second = new MavenProject();
+    private final MavenProject third = new MavenProject();
+
+    private final ReactorIndex underTest = new ReactorIndex(Arrays.asList(first, second, third));
+
+    @Test
+    public void getId() {
+        assertThat(underTest.getId(first)).isEqualTo(0);
+        assertThat(underTest.getId(third)).isEqualTo(2);
+    }
+
+    @Test
+    public void getId_unknown() {
+        assertThatIllegalArgumentException().isThrownBy(() -> underTest.getId(new MavenProject()));
+    }
+
+    @Test
+    public void toBitSet_toProjects() {
+        BitSet bitSet = underTest.toBitSet(Arrays.asList(third, first));
+
+        assertThat(bitSet.cardinality()).isEqualTo(2);
+        assertThat(underTest.toProjects(bitSet)).containsExactly(first, third);
+    }
+
+    @Test
+    public void downstreamRow() {
+        assertThat(underTest.getDownstreamRow(second)).isNull();
+
+        BitSet row = underTest.toBitSet(Arrays.asList(second, third));
+        underTest.putDownstreamRow(second, row);
+
+        assertThat(underTest.getDownstreamRow(second)).isSameAs(row);
+        assertThat(underTest.getDownstreamRows()).containsExactly(null, row, null);
+    }
+
+    @Test
+    public void downstreamRow_reused() {
+        BitSet row = underTest.toBitSet(Arrays.asList(second, third));
+        underTest.putDownstreamRow(second, row);
+        MavenProject recreatedSecond = new MavenProject();
+
+        ReactorIndex reused = new ReactorIndex(Arrays.asList(new MavenProject(), recreatedSecond, new MavenProject()),
+                underTest.getDownstreamRows(), underTest.getUpstreamRows());
+
+        assertThat(reused.getDownstreamRow(recreatedSecond)).isSameAs(row);
+    }
+
+    @Test
+    public void downstreamRow_reused_sizeMismatch() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new ReactorIndex(Arrays.asList(first), underTest.getDownstreamRows(), underTest.getUpstreamRows()));
+    }
+
+    @Test
+    public void upstreamRow() {
+        assertThat(underTest.getUpstreamRow(third)).isNull();
+
+        BitSet row = underTest.toBitSet(Arrays.asList(first, second));
+        underTest.putUpstreamRow(third, row);
+
+        assertThat(underTest.getUpstreamRow(third)).isSameAs(row);
+        assertThat(underTest.getDownstreamRow(third)).isNull();
+        assertThat(underTest.getUpstreamRows()).containsExactly(null, null, row);
+    }
+
+    @Test
+    public void transitiveRows_diamond() {
+        // top <- left, top <- right, left <- bottom, right <- bottom
+        MavenProject top = createProject("top");
+        MavenProject left = createProject("left");
+        MavenProject right = createProject("right");
+        MavenProject bottom = createProject("bottom");
+        List<MavenProject> projects = Arrays.asList(top, left, right, bottom);
+        ProjectDependencyGraph graph = mock(ProjectDependencyGraph.class);
+        when(graph.getSortedProjects()).thenReturn(projects);
+        setNeighbours(graph, top, Collections.emptyList(), Collections.emptyList(), Arrays.asList(left, right), Arrays.asList(left, right, bottom));
+        setNeighbours(graph, left, Arrays.asList(top), Arrays.asList(top), Arrays.asList(bottom), Arrays.asList(bottom));
+        setNeighbours(graph, right, Arrays.asList(top), Arrays.asList(top), Arrays.asList(bottom), Arrays.asList(bottom));
+        setNeighbours(graph, bottom, Arrays.asList(left, right), Arrays.asList(left, right, top), Collections.emptyList(), Collections.emptyList());
+
+        ReactorIndex reactorIndex = new ReactorIndex(projects);
+
+        for (MavenProject project : projects) {
+            assertThat(reactorIndex.getTransitiveDownstreamRow(project, graph))
+                    .isEqualTo(reactorIndex.toBitSet(graph.getDownstreamProjects(project, true)));
+            assertThat(reactorIndex.getTransitiveUpstreamRow(project, graph))
+                    .isEqualTo(reactorIndex.toBitSet(graph.getUpstreamProjects(project, true)));
+        }
+    }
+
+    @Test
+    public void transitiveRows_filteredGraph() {
+        // e.g. -pl upstream,downstream: the direct neighbours of a filtered graph do not contain the deselected project in between
+        MavenProject upstream = createProject("upstream");
+        MavenProject downstream = createProject("downstream");
+        ReactorIndex reactorIndex = new ReactorIndex(Arrays.asList(upstream, createProject("deselected"), downstream));
+        ProjectDependencyGraph graph = mock(ProjectDependencyGraph.class);
+        when(graph.getSortedProjects()).thenReturn(Arrays.asList(upstream, downstream));
+        setNeighbours(graph, upstream, Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Arrays.asList(downstream));
+
+        assertThat(reactorIndex.toProjects(reactorIndex.getTransitiveDownstreamRow(upstream, graph))).containsExactly(downstream);
+    }
+
+    private static MavenProject createProject(String artifactId) {
+        // distinct coordinates, as MavenProject.equals() (used for matching the stubbed arguments) compares them
+        MavenProject project = new MavenProject();
+        project.setArtifactId(artifactId);
+        return project;
+    }
+
+    private static void setNeighbours(ProjectDependencyGraph graph, MavenProject project, List<MavenProject> directUpstream,
+            List<MavenProject> transitiveUpstream, List<MavenProject> directDownstream, List<MavenProject> transitiveDownstream) {
+        when(graph.getUpstreamProjects(project, false)).thenReturn(directUpstream);
+        when(graph.getUpstreamProjects(project, true)).thenReturn(transitiveUpstream);
+        when(graph.getDownstreamProjects(project, false)).thenReturn(directDownstream);
+        when(graph.getDownstreamProjects(project, true)).thenReturn(transitiveDownstream);
+    }
+}
@@ -3,6 +3,8 @@ package com.vackosar.gitflowincrementalbuild.boundary;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -109,6 +111,26 @@ public class UnchangedProjectsRemoverBOMSupportTest extends BaseUnchangedProject
         verify(sessionCloneMock).getCurrentProject();
     }
 
+    @Test
+    public void bomChanged_oneImport_plainVersionProperty() throws GitAPIException, IOException {
+        MavenProject changedBOMModuleMock = addModuleMock(AID_MODULE_B, true, "pom");
+
+        MavenProject unchangedModuleMock = addModuleMock(AID_MODULE_C, false);
+        unchangedModuleMock.getProperties().setProperty("bom.version", changedBOMModuleMock.getVersion());
+
+        installOrigModelWithDepMgmt(unchangedModuleMock)
+                .addDependency(buildBOMDependency(changedBOMModuleMock, "${bom.version}"));
+
+        when(mavenSessionMock.getSystemProperties()).thenReturn(new Properties());
+        when(mavenSessionMock.getUserProperties()).thenReturn(new Properties());
+
+        underTest.act(config());
+
+        verify(mavenSessionMock).setProjects(Arrays.asList(changedBOMModuleMock, unchangedModuleMock));
+        // plain property is resolved without a full blown expression evaluator
+        verify(mavenSessionMock, never()).clone();
+    }
+
     @Test
     public void bomChanged_oneImport_oneWithout() throws GitAPIException, IOException {
         MavenProject changedBOMModuleMock = addModuleMock(AID_MODULE_B, true, "pom");
@@ -164,6 +186,25 @@ public class UnchangedProjectsRemoverBOMSupportTest extends BaseUnchangedProject
         verify(mavenSessionMock).setProjects(Arrays.asList(changedBOMModuleMock, unchangedModuleMock2));
     }
 
+    @Test
+    public void bomChanged_twoBOMs_oneImportingBoth() throws GitAPIException, IOException {
+        MavenProject changedBOMModuleMock1 = addModuleMock(AID_MODULE_B, true, "pom");
+        MavenProject changedBOMModuleMock2 = addModuleMock(AID_MODULE_C, true, "pom");
+
+        MavenProject unchangedModuleMock = addModuleMock(AID_MODULE_D, false);
+
+        installOrigModelWithDepMgmt(unchangedModuleMock)
+                .addDependency(buildBOMDependency(changedBOMModuleMock1));
+        unchangedModuleMock.getOriginalModel().getDependencyManagement()
+                .addDependency(buildBOMDependency(changedBOMModuleMock2));
+
+        underTest.act(config());
+
+        verify(mavenSessionMock).setProjects(Arrays.asList(changedBOMModuleMock1, changedBOMModuleMock2, unchangedModuleMock));
+        // the imports are indexed once, not per BOM (+1 due to test setup)
+        verify(unchangedModuleMock, times(2)).getOriginalModel();
+    }
+
     private DependencyManagement installOrigModelWithDepMgmt(MavenProject moduleMock) {
         Model origModel = new Model();
         DependencyManagement depMgmt = new DependencyManagement();
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -122,6 +123,31 @@ public class UnchangedProjectsRemoverTest extends BaseUnchangedProjectsRemoverTe
         verify(mavenSessionMock).setProjects(Collections.singletonList(changedModuleMock));
     }
 
+    @Test
+    public void singleChanged_reuseAcrossBuilds() throws GitAPIException, IOException {
+        MavenProject changedModuleMock = addModuleMock(AID_MODULE_B, true);
+        addGibProperty(Property.reuseAcrossBuilds, "true");
+
+        underTest.act(config());
+        underTest.act(config());
+
+        verify(mavenSessionMock, times(2)).setProjects(Collections.singletonList(changedModuleMock));
+        // downstream projects of the first build are reused
+        verify(projectDependencyGraphMock).getDownstreamProjects(changedModuleMock, false);
+    }
+
+    @Test
+    public void singleChanged_reuseAcrossBuilds_reactorChanged() throws GitAPIException, IOException {
+        MavenProject changedModuleMock = addModuleMock(AID_MODULE_B, true);
+        addGibProperty(Property.reuseAcrossBuilds, "true");
+
+        underTest.act(config());
+        addModuleMock(AID_MODULE_C, false);
+        underTest.act(config());
+
+        verify(projectDependencyGraphMock, times(2)).getDownstreamProjects(changedModuleMock, false);
+    }
+
     @Test
     public void singleChanged_buildUpstream() throws GitAPIException, IOException {
         MavenProject changedModuleMock = addModuleMock(AID_MODULE_B, true);
@@ -1,6 +1,8 @@
 package com.vackosar.gitflowincrementalbuild.control;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.verify;
 
 import java.io.File;
 import java.nio.file.Path;
@@ -19,7 +21,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
 import com.vackosar.gitflowincrementalbuild.BaseRepoTest;
+import com.vackosar.gitflowincrementalbuild.LoggerSpyUtil;
 import com.vackosar.gitflowincrementalbuild.boundary.Configuration;
 import com.vackosar.gitflowincrementalbuild.control.jgit.GitProvider;
 
@@ -47,6 +52,8 @@ public abstract class BaseChangedProjectsTest extends BaseRepoTest {
     @Spy
     private GitProvider gitProviderSpy;
 
+    protected final Logger loggerSpy = LoggerSpyUtil.buildSpiedLoggerFor(ChangedProjects.class);
+
     private MavenSession mavenSessionMock;
 
     public BaseChangedProjectsTest(boolean useSymLinkedFolder) {
@@ -104,6 +111,30 @@ public abstract class BaseChangedProjectsTest extends BaseRepoTest {
         assertThat(actual).isEqualTo(expected);
     }
 
+    @Test
+    public void list_allReactorModulesChanged() throws Exception {
+        // reduce the reactor to the modules that contain changes
+        Set<String> changedArtifactIds = new HashSet<>(Arrays.asList("subchild2", "child3", "child4", "testJarDependent"));
+        mavenSessionMock.getAllProjects().removeIf(proj -> !changedArtifactIds.contains(proj.getArtifactId()));
+        mavenSessionMock.getProjects().removeIf(proj -> !changedArtifactIds.contains(proj.getArtifactId()));
+
+        final Set<Path> expected = new HashSet<>(Arrays.asList(
+                Paths.get("parent/child2/subchild2"),
+                Paths.get("parent/child3"),
+                Paths.get("parent/child4"),
+                Paths.get("parent/testJarDependent")
+        ));
+
+        final Set<Path> actual = underTest.get(config()).stream()
+                .map(MavenProject::getBasedir)
+                    .map(File::toPath)
+                    .map(localRepoMock.getRepoDir()::relativize)
+                .collect(Collectors.toSet());
+
+        assertThat(actual).isEqualTo(expected);
+        verify(loggerSpy).debug(contains("All reactor modules are changed"));
+    }
+
     protected Configuration config() {
         return new Configuration(mavenSessionMock);
     }
@@ -99,4 +99,11 @@ public abstract class BaseDifferentFilesTest extends BaseRepoTest {
         assertThat(result).as("Resulting set is unexpectedly null").isNotNull();
         return result;
     }
+
+    protected void invokeUnderTest(ChangedPathVisitor visitor) throws Exception {
+        MavenSession mavenSessionMock = getMavenSessionMock();
+        mavenSessionMock.getCurrentProject().getProperties().putAll(projectProperties);
+
+        underTest.get(new Configuration(mavenSessionMock), visitor);
+    }
 }
@@ -45,6 +45,26 @@ public class DifferentFilesHttpFetchBasicAuthTest extends BaseDifferentFilesTest
         assertCommitExists(FETCH_FILE, localGit);
     }
 
+    @Test
+    public void fetch_credentialsCacheTtl() throws Exception {
+        addCommitToRemoteRepo(FETCH_FILE);
+        projectProperties.setProperty(Property.fetchReferenceBranch.prefixedName(), "true");
+        projectProperties.setProperty(Property.referenceBranch.prefixedName(), REMOTE_DEVELOP);
+        projectProperties.setProperty(Property.credentialsCacheTtl.prefixedName(), "60");
+        Files.write(userHome.resolve(".git-credentials"), buildCredentialsFileContent().getBytes());
+        invokeUnderTest();
+        // second build must not require the credential helper anymore
+        Files.delete(userHome.resolve(".git-credentials"));
+        addCommitToRemoteRepo(FETCH_FILE + "2");
+
+        invokeUnderTest();
+
+        Git localGit = localRepoMock.getGit();
+        localGit.reset().setMode(ResetCommand.ResetType.HARD).call();
+        localGit.checkout().setName(REMOTE_DEVELOP).call();
+        assertCommitExists(FETCH_FILE + "2", localGit);
+    }
+
     private String buildCredentialsFileContent() {
         String usrPass = HTTP_PROTOCOL_BASIC_AUTH.getUserName() + ":" + HTTP_PROTOCOL_BASIC_AUTH.getUserSecret() + "@";
         return localRepoMock.getRemoteRepo().repoUri.toString().replace("://", "://" + usrPass);
@@ -3,7 +3,9 @@ package com.vackosar.gitflowincrementalbuild.control;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.AdditionalMatchers.and;
 import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
@@ -11,6 +13,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -22,6 +25,7 @@ import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.ResetCommand;
 import org.junit.jupiter.api.Test;
 
+import com.vackosar.gitflowincrementalbuild.ProcessUtils;
 import com.vackosar.gitflowincrementalbuild.entity.SkipExecutionException;
 import com.vackosar.gitflowincrementalbuild.mocks.EmptyLocalRepoMock;
 import com.vackosar.gitflowincrementalbuild.mocks.MavenSessionMock;
@@ -94,6 +98,179 @@ public class DifferentFilesTest extends BaseDifferentFilesTest {
         assertThat(invokeUnderTest().contains(newFilePath)).isFalse();
     }
 
+    @Test
+    public void listWithUncommitted_fastStatus() throws Exception {
+        Path modifiedFilePath = modifyTrackedFile(repoPath);
+        Path newFilePath = createNewUntrackedFile(repoPath);
+        projectProperties.setProperty(Property.uncommitted.prefixedName(), "true");
+        projectProperties.setProperty(Property.untracked.prefixedName(), "false");
+        projectProperties.setProperty(Property.fastStatus.prefixedName(), "true");
+
+        assertThat(invokeUnderTest()).contains(modifiedFilePath).doesNotContain(newFilePath);
+    }
+
+    @Test
+    public void listWithUntracked_fastStatus() throws Exception {
+        Path modifiedFilePath = modifyTrackedFile(repoPath);
+        Path newFilePath = createNewUntrackedFile(repoPath);
+        projectProperties.setProperty(Property.uncommitted.prefixedName(), "false");
+        projectProperties.setProperty(Property.untracked.prefixedName(), "true");
+        projectProperties.setProperty(Property.fastStatus.prefixedName(), "true");
+
+        assertThat(invokeUnderTest()).contains(newFilePath).doesNotContain(modifiedFilePath);
+    }
+
+    @Test
+    public void listWithUntracked_fastStatus_ignored() throws Exception {
+        Path gitignorePath = repoPath.resolve("parent/child1/.gitignore");
+        Files.write(gitignorePath, "generated/\n".getBytes());
+        Path ignoredFilePath = Files.createDirectories(repoPath.resolve("parent/child1/generated")).resolve("ignored");
+        Files.write(ignoredFilePath, "ignored".getBytes());
+        projectProperties.setProperty(Property.untracked.prefixedName(), "true");
+        projectProperties.setProperty(Property.fastStatus.prefixedName(), "true");
+
+        assertThat(invokeUnderTest()).contains(gitignorePath).doesNotContain(ignoredFilePath);
+    }
+
+    @Test
+    public void listWithUntracked_fastStatus_excluded() throws Exception {
+        Path newFilePath = createNewUntrackedFile(repoPath);
+        projectProperties.setProperty(Property.untracked.prefixedName(), "true");
+        projectProperties.setProperty(Property.fastStatus.prefixedName(), "true");
+        projectProperties.setProperty(Property.excludePathRegex.prefixedName(), Pattern.quote(repoPath.relativize(newFilePath).toString()));
+
+        assertThat(invokeUnderTest()).doesNotContain(newFilePath);
+    }
+
+    @Test
+    public void listWithUncommittedAndUntracked_parallelUntracked() throws Exception {
+        Path modifiedFilePath = modifyTrackedFile(repoPath);
+        Path newFilePath = createNewUntrackedFile(repoPath);
+        Path secondNewFilePath = Files.write(newFilePath.resolveSibling("fileNew2"), "untracked".getBytes());
+        projectProperties.setProperty(Property.parallelUntracked.prefixedName(), "true");
+
+        Set<Path> result = invokeUnderTest();
+
+        // only the first untracked file per module is detected
+        assertThat(result).contains(modifiedFilePath).containsAnyOf(newFilePath, secondNewFilePath);
+        assertThat(result.contains(newFilePath) && result.contains(secondNewFilePath)).isFalse();
+    }
+
+    @Test
+    public void listWithUncommitted_parallelUntracked_touchedOnly() throws Exception {
+        Path touchedFilePath = repoPath.resolve("parent/child1/src/resources/file1");
+        Files.write(touchedFilePath, Files.readAllBytes(touchedFilePath));
+        Files.setLastModifiedTime(touchedFilePath, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        projectProperties.setProperty(Property.parallelUntracked.prefixedName(), "true");
+
+        assertThat(invokeUnderTest()).doesNotContain(touchedFilePath);
+    }
+
+    @Test
+    public void listWithUntracked_parallelUntracked_ignored() throws Exception {
+        Path gitignorePath = repoPath.resolve("parent/child1/.gitignore");
+        Files.write(gitignorePath, "generated/\n".getBytes());
+        Path ignoredFilePath = Files.createDirectories(repoPath.resolve("parent/child1/generated")).resolve("ignored");
+        Files.write(ignoredFilePath, "ignored".getBytes());
+        projectProperties.setProperty(Property.uncommitted.prefixedName(), "false");
+        projectProperties.setProperty(Property.parallelUntracked.prefixedName(), "true");
+        projectProperties.setProperty(Property.fastStatus.prefixedName(), "true");
+
+        assertThat(invokeUnderTest()).contains(gitignorePath).doesNotContain(ignoredFilePath);
+    }
+
+    @Test
+    public void listWithUncommittedAndUntracked_watchWorkingTree() throws Exception {
+        projectProperties.setProperty(Property.reuseAcrossBuilds.prefixedName(), "true");
+        projectProperties.setProperty(Property.watchWorkingTree.prefixedName(), "true");
+        Path trackedFilePath = repoPath.resolve("parent/child1/src/resources/file1");
+        byte[] trackedFileContent = Files.readAllBytes(trackedFilePath);
+
+        assertThat(invokeUnderTest()).doesNotContain(trackedFilePath);
+
+        Path modifiedFilePath = modifyTrackedFile(repoPath);
+        Path newFilePath = createNewUntrackedFile(repoPath);
+        assertThat(invokeUnderTest()).contains(modifiedFilePath, newFilePath);
+
+        // reverted changes are touched as well
+        Files.write(trackedFilePath, trackedFileContent);
+        Files.delete(newFilePath);
+        assertThat(invokeUnderTest()).doesNotContain(trackedFilePath, newFilePath);
+
+        // closes the journal
+        projectProperties.remove(Property.watchWorkingTree.prefixedName());
+        invokeUnderTest();
+    }
+
+    @Test
+    public void listWithUntracked_watchWorkingTree_indexChanged() throws Exception {
+        projectProperties.setProperty(Property.reuseAcrossBuilds.prefixedName(), "true");
+        projectProperties.setProperty(Property.watchWorkingTree.prefixedName(), "true");
+        projectProperties.setProperty(Property.uncommitted.prefixedName(), "false");
+        Path trackedFilePath = repoPath.resolve("parent/child1/src/resources/file1");
+        assertThat(invokeUnderTest()).doesNotContain(trackedFilePath);
+
+        // the file itself is not touched, but it is untracked now
+        try (Git git = Git.open(repoPath.toFile())) {
+            git.rm().setCached(true).addFilepattern("parent/child1/src/resources/file1").call();
+        }
+        assertThat(invokeUnderTest()).contains(trackedFilePath);
+
+        // closes the journal
+        projectProperties.remove(Property.watchWorkingTree.prefixedName());
+        invokeUnderTest();
+    }
+
+    @Test
+    public void listWithUntracked_watchWorkingTree_unignored() throws Exception {
+        projectProperties.setProperty(Property.reuseAcrossBuilds.prefixedName(), "true");
+        projectProperties.setProperty(Property.watchWorkingTree.prefixedName(), "true");
+        Path gitignorePath = Files.write(repoPath.resolve("parent/child1/.gitignore"), "generated/\n".getBytes());
+        Path generatedDir = Files.createDirectories(repoPath.resolve("parent/child1/generated"));
+        assertThat(invokeUnderTest()).contains(gitignorePath);
+
+        Files.write(gitignorePath, new byte[0]);
+        invokeUnderTest();
+
+        // the formerly ignored directory has to be watched now
+        Path newFilePath = Files.write(generatedDir.resolve("fileNew"), "untracked".getBytes());
+        assertThat(invokeUnderTest()).contains(newFilePath);
+
+        // closes the journal
+        projectProperties.remove(Property.watchWorkingTree.prefixedName());
+        invokeUnderTest();
+    }
+
+    @Test
+    public void listWithUncommitted_watchWorkingTree_forceAdded() throws Exception {
+        projectProperties.setProperty(Property.reuseAcrossBuilds.prefixedName(), "true");
+        projectProperties.setProperty(Property.watchWorkingTree.prefixedName(), "true");
+        // the commits below would show up in the branch diff
+        projectProperties.setProperty(Property.disableBranchComparison.prefixedName(), "true");
+        Files.write(repoPath.resolve("parent/child1/.gitignore"), "generated/\n".getBytes());
+        Path generatedFilePath = Files.createDirectories(repoPath.resolve("parent/child1/generated")).resolve("file");
+        Files.write(generatedFilePath, "generated".getBytes());
+        try (Git git = Git.open(repoPath.toFile())) {
+            git.add().addFilepattern("parent/child1/.gitignore").call();
+            git.commit().setMessage("ignore generated").call();
+        }
+        assertThat(invokeUnderTest()).doesNotContain(generatedFilePath);
+
+        // the ignored directory is tracked now (JGit cannot add ignored files)
+        ProcessUtils.startAndWaitForProcess(Arrays.asList("git", "add", "-f", "parent/child1/generated/file"), repoPath, line -> true);
+        try (Git git = Git.open(repoPath.toFile())) {
+            git.commit().setMessage("add generated").call();
+        }
+        assertThat(invokeUnderTest()).doesNotContain(generatedFilePath);
+
+        Files.write(generatedFilePath, "\nmodified".getBytes(), StandardOpenOption.APPEND);
+        assertThat(invokeUnderTest()).contains(generatedFilePath);
+
+        // closes the journal
+        projectProperties.remove(Property.watchWorkingTree.prefixedName());
+        invokeUnderTest();
+    }
+
     @Test
     public void listWithCheckout() throws Exception {
         localRepoMock.getGit().reset().setRef(HEAD).setMode(ResetCommand.ResetType.HARD).call();
@@ -151,6 +328,161 @@ public class DifferentFilesTest extends BaseDifferentFilesTest {
         assertThat(invokeUnderTest()).isEqualTo(expected);
     }
 
+    @Test
+    public void listExcludingGlob() throws Exception {
+        projectProperties.setProperty(Property.excludePathRegex.prefixedName(), "glob:parent/child2/**");
+        final Set<Path> expected = new HashSet<>(Arrays.asList(
+                Paths.get(repoPath + "/parent/child3/src/resources/file1"),
+                Paths.get(repoPath + "/parent/child4/pom.xml"),
+                Paths.get(repoPath + "/parent/testJarDependent/src/resources/file5")
+        ));
+
+        assertThat(invokeUnderTest()).isEqualTo(expected);
+    }
+
+    @Test
+    public void listIncludingGlob() throws Exception {
+        projectProperties.setProperty(Property.includePathRegex.prefixedName(), "glob:parent/*/src/**/file?");
+        final Set<Path> expected = new HashSet<>(Arrays.asList(
+                Paths.get(repoPath + "/parent/child3/src/resources/file1"),
+                Paths.get(repoPath + "/parent/testJarDependent/src/resources/file5")
+        ));
+
+        assertThat(invokeUnderTest()).isEqualTo(expected);
+    }
+
+    @Test
+    public void listVisitingDirectoryAsWhole() throws Exception {
+        Path child2 = repoPath.resolve("parent/child2");
+        final Set<Path> expected = new HashSet<>(Arrays.asList(
+                child2,
+                Paths.get(repoPath + "/parent/child3/src/resources/file1"),
+                Paths.get(repoPath + "/parent/child4/pom.xml"),
+                Paths.get(repoPath + "/parent/testJarDependent/src/resources/file5")
+                ));
+
+        Set<Path> actual = new HashSet<>();
+        invokeUnderTest(new ChangedPathVisitor() {
+            @Override
+            public boolean visit(Path path) {
+                actual.add(path);
+                return true;
+            }
+
+            @Override
+            public boolean isVisitableAsWhole(Path directory) {
+                return directory.equals(child2);
+            }
+        });
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void listVisitingDirectoryAsWhole_excluding() throws Exception {
+        projectProperties.setProperty(Property.excludePathRegex.prefixedName(), ".*file22.*");
+        Path child2 = repoPath.resolve("parent/child2");
+
+        Set<Path> actual = new HashSet<>();
+        invokeUnderTest(new ChangedPathVisitor() {
+            @Override
+            public boolean visit(Path path) {
+                actual.add(path);
+                return true;
+            }
+
+            @Override
+            public boolean isVisitableAsWhole(Path directory) {
+                return directory.equals(child2);
+            }
+        });
+
+        // every single path has to be filtered, so no directories
+        assertThat(actual).doesNotContain(child2).contains(Paths.get(repoPath + "/parent/child2/subchild2/src/resources/file2"));
+    }
+
+    @Test
+    public void listSkippingDirectory_untracked() throws Exception {
+        Path skippedFilePath = createNewUntrackedFile(repoPath);
+        Path newFilePath = Files.write(repoPath.resolve("parent/child3/src/resources/fileNew"), "untracked".getBytes());
+        projectProperties.setProperty(Property.untracked.prefixedName(), "true");
+
+        assertThat(invokeUnderTestSkipping(repoPath.resolve("parent/child1"))).contains(newFilePath).doesNotContain(skippedFilePath);
+    }
+
+    @Test
+    public void listSkippingDirectory_untracked_fastStatus() throws Exception {
+        Path skippedFilePath = createNewUntrackedFile(repoPath);
+        Path newFilePath = Files.write(repoPath.resolve("parent/child3/src/resources/fileNew"), "untracked".getBytes());
+        projectProperties.setProperty(Property.untracked.prefixedName(), "true");
+        projectProperties.setProperty(Property.fastStatus.prefixedName(), "true");
+
+        assertThat(invokeUnderTestSkipping(repoPath.resolve("parent/child1"))).contains(newFilePath).doesNotContain(skippedFilePath);
+    }
+
+    @Test
+    public void listSkippingDirectory_uncommitted_parallelUntracked() throws Exception {
+        Path skippedFilePath = modifyTrackedFile(repoPath);
+        Path newFilePath = Files.write(repoPath.resolve("parent/child3/src/resources/fileNew"), "untracked".getBytes());
+        projectProperties.setProperty(Property.uncommitted.prefixedName(), "true");
+        projectProperties.setProperty(Property.untracked.prefixedName(), "true");
+        projectProperties.setProperty(Property.parallelUntracked.prefixedName(), "true");
+
+        assertThat(invokeUnderTestSkipping(repoPath.resolve("parent/child1"))).contains(newFilePath).doesNotContain(skippedFilePath);
+    }
+
+    private Set<Path> invokeUnderTestSkipping(Path skippedDirectory) throws Exception {
+        Set<Path> actual = new HashSet<>();
+        invokeUnderTest(new ChangedPathVisitor() {
+            @Override
+            public boolean visit(Path path) {
+                actual.add(path);
+                return true;
+            }
+
+            @Override
+            public boolean isSkippable(Path directory) {
+                return directory.equals(skippedDirectory);
+            }
+        });
+        return actual;
+    }
+
+    @Test
+    public void listWithCacheBranchDiff() throws Exception {
+        projectProperties.setProperty(Property.cacheBranchDiff.prefixedName(), "true");
+        final Set<Path> expected = new HashSet<>(Arrays.asList(
+                Paths.get(repoPath + "/parent/child2/subchild2/src/resources/file2"),
+                Paths.get(repoPath + "/parent/child2/subchild2/src/resources/file22"),
+                Paths.get(repoPath + "/parent/child3/src/resources/file1"),
+                Paths.get(repoPath + "/parent/child4/pom.xml"),
+                Paths.get(repoPath + "/parent/testJarDependent/src/resources/file5")
+                ));
+
+        assertThat(invokeUnderTest()).isEqualTo(expected);
+        assertThat(repoPath.resolve(".git/gib/diff")).isDirectory();
+        verify(loggerSpy, never()).info(contains("Using cached branch diff"));
+
+        assertThat(invokeUnderTest()).isEqualTo(expected);
+        verify(loggerSpy).info(contains("Using cached branch diff"));
+    }
+
+    @Test
+    public void listWithCacheBranchDiff_excludingAfterCaching() throws Exception {
+        projectProperties.setProperty(Property.cacheBranchDiff.prefixedName(), "true");
+        invokeUnderTest();
+
+        projectProperties.setProperty(Property.excludePathRegex.prefixedName(), ".*file2.*");
+        final Set<Path> expected = new HashSet<>(Arrays.asList(
+                Paths.get(repoPath + "/parent/child3/src/resources/file1"),
+                Paths.get(repoPath + "/parent/child4/pom.xml"),
+                Paths.get(repoPath + "/parent/testJarDependent/src/resources/file5")
+        ));
+
+        assertThat(invokeUnderTest()).isEqualTo(expected);
+        verify(loggerSpy).info(contains("Using cached branch diff"));
+    }
+
     @Test
     public void listWithDisabledBranchComparison() throws Exception {
         projectProperties.setProperty(Property.disableBranchComparison.prefixedName(), "true");
@@ -185,6 +517,22 @@ public class DifferentFilesTest extends BaseDifferentFilesTest {
         verify(loggerSpy).info(contains("59dc82fa887d9ca82a0d3d1790c6d767e738e71a"));
     }
 
+    @Test
+    public void listComparedToMergeBase_cacheBranchDiff() throws Exception {
+        localRepoMock.getGit().reset().setRef(HEAD).setMode(ResetCommand.ResetType.HARD).call();
+        localRepoMock.getGit().checkout().setName(REFS_HEADS_FEATURE_2).call();
+        localRepoMock.getGit().reset().setRef(HEAD).setMode(ResetCommand.ResetType.HARD).call();
+        projectProperties.setProperty(Property.baseBranch.prefixedName(), REFS_HEADS_FEATURE_2);
+        projectProperties.setProperty(Property.compareToMergeBase.prefixedName(), "true");
+        projectProperties.setProperty(Property.cacheBranchDiff.prefixedName(), "true");
+
+        invokeUnderTest();
+        verify(loggerSpy, never()).info(contains("from cache"));
+
+        assertThat(invokeUnderTest().stream().anyMatch(repoPath.resolve("parent/feature2-only-file.txt")::equals)).isTrue();
+        verify(loggerSpy).info(and(contains("59dc82fa887d9ca82a0d3d1790c6d767e738e71a"), contains("from cache")));
+    }
+
     @Test
     public void fetch() throws Exception {
         addCommitToRemoteRepo(FETCH_FILE);
@@ -215,6 +563,98 @@ public class DifferentFilesTest extends BaseDifferentFilesTest {
         assertCommitExists(FETCH_FILE, localGit);
     }
 
+    @Test
+    public void fetch_referenceAndBaseBranch_sameBranch() throws Exception {
+        addCommitToRemoteRepo(FETCH_FILE);
+        projectProperties.setProperty(Property.fetchReferenceBranch.prefixedName(), "true");
+        projectProperties.setProperty(Property.referenceBranch.prefixedName(), REMOTE_DEVELOP);
+        projectProperties.setProperty(Property.fetchBaseBranch.prefixedName(), "true");
+        projectProperties.setProperty(Property.baseBranch.prefixedName(), REMOTE_DEVELOP);
+        projectProperties.setProperty(Property.fetchTimeout.prefixedName(), "30");
+        localRepoMock.getGit().reset().setMode(ResetCommand.ResetType.HARD).call();
+
+        invokeUnderTest();
+
+        verify(loggerSpy).info("Fetching branch " + REMOTE_DEVELOP);
+        assertCommitExists(FETCH_FILE, localRepoMock.getGit());
+    }
+
+    @Test
+    public void fetch_maxAge_changed() throws Exception {
+        addCommitToRemoteRepo(FETCH_FILE);
+        projectProperties.setProperty(Property.fetchReferenceBranch.prefixedName(), "true");
+        projectProperties.setProperty(Property.referenceBranch.prefixedName(), REMOTE_DEVELOP);
+        projectProperties.setProperty(Property.fetchMaxAge.prefixedName(), "0");
+
+        invokeUnderTest();
+
+        verify(loggerSpy, never()).info(contains("Skipping fetch"));
+        Git localGit = localRepoMock.getGit();
+        localGit.reset().setMode(ResetCommand.ResetType.HARD).call();
+        localGit.checkout().setName(REMOTE_DEVELOP).call();
+        assertCommitExists(FETCH_FILE, localGit);
+    }
+
+    @Test
+    public void fetch_maxAge_upToDate() throws Exception {
+        addCommitToRemoteRepo(FETCH_FILE);
+        projectProperties.setProperty(Property.fetchReferenceBranch.prefixedName(), "true");
+        projectProperties.setProperty(Property.referenceBranch.prefixedName(), REMOTE_DEVELOP);
+        invokeUnderTest();
+        projectProperties.setProperty(Property.fetchMaxAge.prefixedName(), "0");
+
+        invokeUnderTest();
+
+        verify(loggerSpy).info("Skipping fetch of " + REMOTE_DEVELOP + " since it is up to date.");
+    }
+
+    @Test
+    public void fetch_maxAge_fetchedRecently() throws Exception {
+        addCommitToRemoteRepo(FETCH_FILE);
+        projectProperties.setProperty(Property.fetchReferenceBranch.prefixedName(), "true");
+        projectProperties.setProperty(Property.referenceBranch.prefixedName(), REMOTE_DEVELOP);
+        invokeUnderTest();
+        projectProperties.setProperty(Property.fetchMaxAge.prefixedName(), "3600");
+
+        invokeUnderTest();
+
+        verify(loggerSpy).info("Skipping fetch of " + REMOTE_DEVELOP + " since it was fetched less than 3600 seconds ago.");
+    }
+
+    @Test
+    public void fetch_maxAge_fetchedRecently_withoutReflogAndFetchHead() throws Exception {
+        addCommitToRemoteRepo(FETCH_FILE);
+        projectProperties.setProperty(Property.fetchReferenceBranch.prefixedName(), "true");
+        projectProperties.setProperty(Property.referenceBranch.prefixedName(), REMOTE_DEVELOP);
+        invokeUnderTest();
+        // e.g. a fetch of another remote that (concurrently) replaced FETCH_HEAD and an up to date branch without a new reflog entry
+        Path gitDir = localRepoMock.getGit().getRepository().getDirectory().toPath();
+        Files.delete(gitDir.resolve("FETCH_HEAD"));
+        Files.delete(gitDir.resolve("logs").resolve(REMOTE_DEVELOP));
+        projectProperties.setProperty(Property.fetchMaxAge.prefixedName(), "3600");
+
+        invokeUnderTest();
+
+        verify(loggerSpy).info("Skipping fetch of " + REMOTE_DEVELOP + " since it was fetched less than 3600 seconds ago.");
+    }
+
+    @Test
+    public void fetch_deepenShallowClone_notShallow() throws Exception {
+        addCommitToRemoteRepo(FETCH_FILE);
+        projectProperties.setProperty(Property.fetchReferenceBranch.prefixedName(), "true");
+        projectProperties.setProperty(Property.referenceBranch.prefixedName(), REMOTE_DEVELOP);
+        projectProperties.setProperty(Property.deepenShallowClone.prefixedName(), "true");
+
+        invokeUnderTest();
+
+        verify(loggerSpy, never()).debug(contains("Invoking native git"));
+        verify(loggerSpy, never()).info(contains("deepening"));
+        Git localGit = localRepoMock.getGit();
+        localGit.reset().setMode(ResetCommand.ResetType.HARD).call();
+        localGit.checkout().setName(REMOTE_DEVELOP).call();
+        assertCommitExists(FETCH_FILE, localGit);
+    }
+
     @Test
     public void invalidBaseBranch() throws Exception {
         projectProperties.setProperty(Property.referenceBranch.prefixedName(), "FOO");
@@ -0,0 +1,86 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileCacheTest {
+
+    private static final List<String> LINES = Arrays.asList("a/b", "c");
+
+    @TempDir
+    Path tempDir;
+
+    private Path cacheDir;
+    private FileCache underTest;
+
+    @BeforeEach
+    void before() {
+        cacheDir = tempDir.resolve("cache");
+        underTest = new FileCache(cacheDir, 2);
+    }
+
+    @Test
+    public void get_noEntry() {
+        assertThat(underTest.get("foo")).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    public void putAndGet() {
+        underTest.put("foo", LINES);
+
+        assertThat(underTest.get("foo")).isEqualTo(Optional.of(LINES));
+        assertThat(underTest.get("bar")).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    public void putAndGet_empty() {
+        underTest.put("foo", Collections.emptyList());
+
+        assertThat(underTest.get("foo")).isEqualTo(Optional.of(Collections.emptyList()));
+    }
+
+    @Test
+    public void put_replace() {
+        underTest.put("foo", LINES);
+        underTest.put("foo", Collections.singletonList("x"));
+
+        assertThat(underTest.get("foo")).isEqualTo(Optional.of(Collections.singletonList("x")));
+        assertThat(listCacheDir()).hasSize(1);
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsed() throws Exception {
+        underTest.put("foo", LINES);
+        underTest.put("bar", LINES);
+        // make both entries "old" to be independent of the timestamp resolution of the file system
+        for (Path entryFile : listCacheDir()) {
+            Files.setLastModifiedTime(entryFile, FileTime.fromMillis(1000));
+        }
+        underTest.get("foo");   // foo is now more recently used than bar
+
+        underTest.put("baz", LINES);
+
+        assertThat(listCacheDir()).hasSize(2);
+        assertThat(underTest.get("foo")).isEqualTo(Optional.of(LINES));
+        assertThat(underTest.get("bar")).isEqualTo(Optional.empty());
+        assertThat(underTest.get("baz")).isEqualTo(Optional.of(LINES));
+    }
+
+    private Path[] listCacheDir() throws Exception {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.toArray(Path[]::new);
+        }
+    }
+}
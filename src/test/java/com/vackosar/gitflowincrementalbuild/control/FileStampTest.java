@@ -0,0 +1,79 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileStampTest {
+
+    private static final FileTime OLD_TIME = FileTime.fromMillis(1000);
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+
+    @BeforeEach
+    void before() throws Exception {
+        file = Files.write(tempDir.resolve("file"), "content".getBytes());
+    }
+
+    @Test
+    public void unchanged() throws Exception {
+        Files.setLastModifiedTime(file, OLD_TIME);
+
+        assertThat(FileStamp.of(file.toFile()).isModified(file.toFile())).isFalse();
+    }
+
+    @Test
+    public void modified_lastModifiedTime() throws Exception {
+        Files.setLastModifiedTime(file, OLD_TIME);
+        FileStamp underTest = FileStamp.of(file.toFile());
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2000));
+
+        assertThat(underTest.isModified(file.toFile())).isTrue();
+    }
+
+    @Test
+    public void modified_size() throws Exception {
+        Files.setLastModifiedTime(file, OLD_TIME);
+        FileStamp underTest = FileStamp.of(file.toFile());
+
+        Files.write(file, "other content".getBytes());
+        Files.setLastModifiedTime(file, OLD_TIME);
+
+        assertThat(underTest.isModified(file.toFile())).isTrue();
+    }
+
+    @Test
+    public void racilyClean() throws Exception {
+        // just written: another write within the timestamp resolution might not be detectable
+        assertThat(FileStamp.of(file.toFile()).isModified(file.toFile())).isTrue();
+    }
+
+    @Test
+    public void missing() throws Exception {
+        File missingFile = tempDir.resolve("missing").toFile();
+
+        assertThat(FileStamp.of(missingFile).isModified(missingFile)).isFalse();
+    }
+
+    @Test
+    public void missing_created() throws Exception {
+        Path missingFile = tempDir.resolve("missing");
+        FileStamp underTest = FileStamp.of(missingFile.toFile());
+
+        Files.write(missingFile, "content".getBytes());
+        Files.setLastModifiedTime(missingFile, OLD_TIME);
+
+        assertThat(underTest.isModified(missingFile.toFile())).isTrue();
+    }
+}
@@ -0,0 +1,61 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.vackosar.gitflowincrementalbuild.control.Metrics.Count;
+import com.vackosar.gitflowincrementalbuild.control.Metrics.Phase;
+
+public class MetricsTest {
+
+    private final Metrics underTest = new Metrics();
+
+    @Test
+    public void time_nested() throws InterruptedException {
+        try (Metrics.Stopwatch outer = underTest.time(Phase.BRANCH_DIFF)) {
+            try (Metrics.Stopwatch inner = underTest.time(Phase.MODULE_MAPPING)) {
+                Thread.sleep(50);
+            }
+        }
+        underTest.stop();
+
+        assertThat(underTest.getMillis(Phase.MODULE_MAPPING)).isGreaterThanOrEqualTo(50);
+        assertThat(underTest.getMillis(Phase.BRANCH_DIFF)).isLessThan(50);
+        assertThat(underTest.getTotalMillis()).isGreaterThanOrEqualTo(50);
+    }
+
+    @Test
+    public void time_accumulated() throws InterruptedException {
+        for (int i = 0; i < 2; i++) {
+            try (Metrics.Stopwatch stopwatch = underTest.time(Phase.STATUS)) {
+                Thread.sleep(25);
+            }
+        }
+
+        assertThat(underTest.getMillis(Phase.STATUS)).isGreaterThanOrEqualTo(50);
+    }
+
+    @Test
+    public void toJson() {
+        underTest.add(Count.CHANGED_PATHS, 2);
+        underTest.add(Count.CHANGED_PATHS, 3);
+        underTest.set(Count.CHANGED_MODULES, 4);
+
+        assertThat(underTest.toJson())
+                .startsWith("{\n  \"totalMillis\": ")
+                .contains("\n  \"phaseMillis\": {\n    \"fetch\": 0,\n")
+                .contains("\n    \"graphExpansion\": 0\n  },\n")
+                .contains("\n    \"changedPaths\": 5,\n    \"changedModules\": 4,\n")
+                .endsWith("\n    \"fetchedBytes\": 0\n  }\n}\n");
+    }
+
+    @Test
+    public void toTable() {
+        underTest.set(Count.IMPACTED_MODULES, 7);
+
+        assertThat(underTest.toTable())
+                .contains(String.format("%-20s %10d ms%n", "fetch", 0))
+                .contains(String.format("%-20s %10d%n", "impactedModules", 7));
+    }
+}
@@ -0,0 +1,114 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ModulePathIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path root;
+    private Path child;
+    private Path subChild;
+    private Path nonReactorChild;
+
+    private final MavenProject rootProject = new MavenProject();
+    private final MavenProject childProject = new MavenProject();
+    private final MavenProject subChildProject = new MavenProject();
+
+    private ModulePathIndex underTest;
+
+    @BeforeEach
+    void before() {
+        root = tempDir.resolve("root");
+        child = root.resolve("child");
+        subChild = child.resolve("sub/subChild");
+        nonReactorChild = root.resolve("nonReactorChild");
+
+        Map<Path, MavenProject> reactorModules = new HashMap<>();
+        reactorModules.put(root, rootProject);
+        reactorModules.put(child, childProject);
+        reactorModules.put(subChild, subChildProject);
+        // the reactor modules are usually also contained in the "non-reactor" dirs (e.g. when those are read from the Git index)
+        underTest = new ModulePathIndex(reactorModules, Arrays.asList(root, child, nonReactorChild));
+    }
+
+    @Test
+    public void findModuleDir_moduleDirItself() {
+        assertThat(underTest.findModuleDir(root)).isEqualTo(root);
+        assertThat(underTest.findModuleDir(child)).isEqualTo(child);
+        assertThat(underTest.findModuleDir(subChild)).isEqualTo(subChild);
+        assertThat(underTest.findModuleDir(nonReactorChild)).isEqualTo(nonReactorChild);
+    }
+
+    @Test
+    public void findModuleDir_fileInModule() {
+        assertThat(underTest.findModuleDir(root.resolve("pom.xml"))).isEqualTo(root);
+        assertThat(underTest.findModuleDir(child.resolve("src/main/java/Foo.java"))).isEqualTo(child);
+        assertThat(underTest.findModuleDir(subChild.resolve("src/main/java/Foo.java"))).isEqualTo(subChild);
+        assertThat(underTest.findModuleDir(nonReactorChild.resolve("src/main/java/Foo.java"))).isEqualTo(nonReactorChild);
+    }
+
+    @Test
+    public void findModuleDir_intermediateDir() {
+        assertThat(underTest.findModuleDir(child.resolve("sub"))).isEqualTo(child);
+        assertThat(underTest.findModuleDir(child.resolve("sub/foo.txt"))).isEqualTo(child);
+    }
+
+    @Test
+    public void findModuleDir_outside() {
+        assertThat(underTest.findModuleDir(tempDir.resolve("foo.txt"))).isNull();
+        assertThat(underTest.findModuleDir(tempDir)).isNull();
+    }
+
+    @Test
+    public void findModuleDir_empty() {
+        ModulePathIndex emptyIndex = new ModulePathIndex(Collections.emptyMap(), Collections.emptySet());
+
+        assertThat(emptyIndex.findModuleDir(root.resolve("pom.xml"))).isNull();
+    }
+
+    @Test
+    public void containsNestedModuleDir() {
+        assertThat(underTest.containsNestedModuleDir(tempDir)).isTrue();
+        assertThat(underTest.containsNestedModuleDir(root)).isTrue();
+        assertThat(underTest.containsNestedModuleDir(child)).isTrue();
+        assertThat(underTest.containsNestedModuleDir(child.resolve("sub"))).isTrue();
+        assertThat(underTest.containsNestedModuleDir(subChild)).isFalse();
+        assertThat(underTest.containsNestedModuleDir(nonReactorChild)).isFalse();
+        assertThat(underTest.containsNestedModuleDir(child.resolve("src"))).isFalse();
+        assertThat(underTest.containsNestedModuleDir(tempDir.resolveSibling("other"))).isFalse();
+    }
+
+    @Test
+    public void withReactorModules() {
+        MavenProject otherChildProject = new MavenProject();
+
+        ModulePathIndex otherIndex = underTest.withReactorModules(Collections.singletonMap(child, otherChildProject));
+
+        assertThat(otherIndex.findModuleDir(subChild.resolve("pom.xml"))).isEqualTo(subChild);
+        assertThat(otherIndex.getReactorModule(child)).isSameAs(otherChildProject);
+        assertThat(otherIndex.getReactorModule(subChild)).isNull();
+        assertThat(otherIndex.getReactorModuleCount()).isEqualTo(1);
+        assertThat(underTest.getReactorModule(child)).isSameAs(childProject);
+    }
+
+    @Test
+    public void getReactorModule() {
+        assertThat(underTest.getReactorModule(root)).isSameAs(rootProject);
+        assertThat(underTest.getReactorModule(child)).isSameAs(childProject);
+        assertThat(underTest.getReactorModule(subChild)).isSameAs(subChildProject);
+        assertThat(underTest.getReactorModule(nonReactorChild)).isNull();
+    }
+}
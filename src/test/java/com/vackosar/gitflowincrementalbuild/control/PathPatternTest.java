@@ -0,0 +1,77 @@
+package com.vackosar.gitflowincrementalbuild.control;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class PathPatternTest {
+
+    @Test
+    public void regex() {
+        PathPattern underTest = PathPattern.compile("file2");
+
+        assertThat(underTest.test("parent/child2/file2")).isTrue();
+        assertThat(underTest.test("parent/child2/file22")).isTrue();
+        assertThat(underTest.test("parent/child2/file1")).isFalse();
+        assertThat(underTest).hasToString("file2");
+    }
+
+    @Test
+    public void regex_directories() {
+        PathPattern underTest = PathPattern.compile("docs/.*");
+
+        assertThat(underTest.matchesAllBelow("docs")).isFalse();
+        assertThat(underTest.mayMatchBelow("src")).isTrue();
+    }
+
+    @Test
+    public void glob() {
+        PathPattern underTest = PathPattern.compile("glob:parent/*/file?");
+
+        assertThat(underTest.test("parent/child2/file2")).isTrue();
+        assertThat(underTest.test("parent/child2/file22")).isFalse();
+        assertThat(underTest.test("parent/child2/sub/file2")).isFalse();
+        assertThat(underTest.test("other/parent/child2/file2")).isFalse();
+        assertThat(underTest).hasToString("glob:parent/*/file?");
+    }
+
+    @Test
+    public void glob_doubleAsterisk() {
+        PathPattern underTest = PathPattern.compile("glob:**/*.md");
+
+        assertThat(underTest.test("README.md")).isTrue();
+        assertThat(underTest.test("docs/sub/index.md")).isTrue();
+        assertThat(underTest.test("docs/sub/index.mdx")).isFalse();
+    }
+
+    @Test
+    public void glob_quotesRegexCharacters() {
+        PathPattern underTest = PathPattern.compile("glob:file.(txt)");
+
+        assertThat(underTest.test("file.(txt)")).isTrue();
+        assertThat(underTest.test("fileX(txt)")).isFalse();
+    }
+
+    @Test
+    public void glob_directories() {
+        PathPattern underTest = PathPattern.compile("glob:docs/**");
+
+        assertThat(underTest.test("docs/sub/index.md")).isTrue();
+        assertThat(underTest.matchesAllBelow("docs")).isTrue();
+        assertThat(underTest.matchesAllBelow("docs/sub")).isFalse();
+        assertThat(underTest.matchesAllBelow("src")).isFalse();
+        assertThat(underTest.mayMatchBelow("docs")).isTrue();
+        assertThat(underTest.mayMatchBelow("docs/sub")).isTrue();
+        assertThat(underTest.mayMatchBelow("doc")).isFalse();
+        assertThat(underTest.mayMatchBelow("src")).isFalse();
+    }
+
+    @Test
+    public void glob_directories_wildcardPrefix() {
+        PathPattern underTest = PathPattern.compile("glob:*/src/**");
+
+        assertThat(underTest.matchesAllBelow("child/src")).isTrue();
+        assertThat(underTest.matchesAllBelow("child")).isFalse();
+        assertThat(underTest.mayMatchBelow("child")).isTrue();
+    }
+}
@@ -192,6 +192,38 @@ public class PropertyTest {
                 .withMessageContaining("bing");
     }
 
+    @Test
+    public void resolveAll_defaults() {
+        Map<Property, Property.ValueWithOriginContext> values = Property.resolveAll(NO_PROPS, NO_PROPS);
+
+        assertThat(values).hasSize(Property.values().length);
+        assertThat(Property.disable.getValue(values)).isEqualTo("false");
+        assertThat(values.get(Property.disable).originProperties).isEqualTo("default");
+        assertThat(Property.referenceBranch.getValueOpt(values)).contains("refs/remotes/origin/develop");
+    }
+
+    @Test
+    public void resolveAll_precedence() {
+        System.setProperty(Property.disable.prefixedShortName(), "true");
+        System.setProperty(Property.disable.prefixedName(), "false");
+        System.setProperty(Property.buildAll.prefixedShortName(), "");
+        Properties projectProperties = propsWith(Property.buildAll.prefixedName(), "false");
+        projectProperties.setProperty(Property.baseBranch.prefixedName(), "refs/heads/feature");
+        projectProperties.setProperty(Property.referenceBranch.prefixedName(), "refs/heads/develop");
+        Properties pluginProperties = propsWith(Property.referenceBranch.name(), "refs/heads/main");
+
+        Map<Property, Property.ValueWithOriginContext> values = Property.resolveAll(pluginProperties, projectProperties);
+
+        // same results as per single property
+        for (Property property : Property.values()) {
+            assertThat(property.getValue(values)).as(property.name()).isEqualTo(property.getValue(pluginProperties, projectProperties));
+        }
+        assertThat(values.get(Property.disable).originName).isEqualTo(Property.disable.prefixedName());
+        assertThat(Property.buildAll.getValue(values)).isEqualTo("true");
+        assertThat(values.get(Property.baseBranch).originProperties).isEqualTo("project");
+        assertThat(values.get(Property.referenceBranch).originProperties).isEqualTo("plugin");
+    }
+
     @Test
     public void getDefaultValue_sample() {
         assertThat(Property.disable.getDefaultValue()).isEqualTo("false");
@@ -0,0 +1,187 @@
+package com.vackosar.gitflowincrementalbuild.jgit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.transport.OpenSshConfig.Host;
+import org.eclipse.jgit.transport.RemoteSession;
+import org.eclipse.jgit.transport.SshTransport;
+import org.eclipse.jgit.transport.URIish;
+import org.eclipse.jgit.util.FS;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.vackosar.gitflowincrementalbuild.control.jgit.AgentProxyAwareJschConfigSessionFactory;
+import com.vackosar.gitflowincrementalbuild.mocks.server.TestServer;
+import com.vackosar.gitflowincrementalbuild.mocks.server.TestServerType;
+
+public class AgentProxyAwareJschConfigSessionFactoryTest {
+
+    private static final int TIMEOUT_SECONDS = 30;
+
+    @TempDir
+    Path tempDir;
+
+    private Git remoteGit;
+    private ObjectId remoteHead;
+    private TestServer server;
+    private URIish uri;
+    private FS fs;
+
+    @BeforeEach
+    void before() throws Exception {
+        remoteGit = Git.init().setDirectory(tempDir.resolve("remote").toFile()).call();
+        remoteHead = remoteGit.commit().setMessage("initial commit").setAllowEmpty(true).call().getId();
+        server = TestServerType.SSH_PROTOCOL.buildServer();
+        uri = new URIish(server.start(remoteGit.getRepository()).toString());
+
+        Path sshDir = Files.createDirectories(tempDir.resolve("userHome/.ssh"));
+        Files.write(sshDir.resolve("id_rsa"), Collections.singleton(TestServerType.SSH_PROTOCOL.getUserSecret()));
+        String knownHostEntry = String.format("[%s]:%s %s", uri.getHost(), uri.getPort(), TestServerType.SSH_PROTOCOL.getServerPublicKey());
+        Files.write(sshDir.resolve("known_hosts"), Collections.singleton(knownHostEntry));
+        fs = FS.DETECTED.newInstance().setUserHome(sshDir.getParent().toFile());
+    }
+
+    @AfterEach
+    void after() {
+        server.stop();
+        remoteGit.close();
+    }
+
+    @Test
+    public void releasedSessionIsReused() throws Exception {
+        CountingSessionFactory underTest = new CountingSessionFactory(AgentProxyAwareJschConfigSessionFactory.DEFAULT_MAX_IDLE_MILLIS);
+
+        RemoteSession first = underTest.getSession(uri, null, fs, TIMEOUT_SECONDS * 1000);
+        underTest.releaseSession(first);
+        RemoteSession second = underTest.getSession(uri, null, fs, TIMEOUT_SECONDS * 1000);
+
+        assertThat(second).isSameAs(first);
+        assertThat(underTest.createdSessions).hasSize(1);
+
+        underTest.releaseSession(second);
+        underTest.disconnectIdleSessions();
+
+        assertThat(underTest.createdSessions.get(0).isConnected()).isFalse();
+    }
+
+    @Test
+    public void fetchViaSshConfigAlias() throws Exception {
+        // the session is created by JSch.getSession(), which applies the ssh config of the (shared) JSch instance
+        Files.write(fs.userHome().toPath().resolve(".ssh/config"), Arrays.asList(
+                "Host gib-test-alias",
+                "  HostName " + uri.getHost(),
+                "  Port " + uri.getPort()));
+        URIish aliasUri = uri.setHost("gib-test-alias").setPort(-1);
+        CountingSessionFactory underTest = new CountingSessionFactory(AgentProxyAwareJschConfigSessionFactory.DEFAULT_MAX_IDLE_MILLIS);
+
+        try {
+            assertThat(fetch(tempDir.resolve("local"), underTest, aliasUri)).isEqualTo(remoteHead);
+
+            assertThat(underTest.createdSessions).hasSize(1);
+            assertThat(underTest.createdSessions.get(0).isConnected()).as("released to the pool").isTrue();
+            assertThat(underTest.createdSessions.get(0).getPort()).isEqualTo(uri.getPort());
+        } finally {
+            underTest.disconnectIdleSessions();
+        }
+    }
+
+    @Test
+    public void idleSessionIsEvicted() throws Exception {
+        CountingSessionFactory underTest = new CountingSessionFactory(0);
+
+        RemoteSession first = underTest.getSession(uri, null, fs, TIMEOUT_SECONDS * 1000);
+        underTest.releaseSession(first);
+        RemoteSession second = underTest.getSession(uri, null, fs, TIMEOUT_SECONDS * 1000);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(underTest.createdSessions).hasSize(2);
+        assertThat(underTest.createdSessions.get(0).isConnected()).isFalse();
+
+        underTest.releaseSession(second);
+        underTest.disconnectIdleSessions();
+    }
+
+    @Test
+    public void concurrentFetch() throws Exception {
+        // each session creation waits for the other one, which would time out if the handshakes were serialized
+        CountDownLatch bothConnecting = new CountDownLatch(2);
+        AtomicBoolean serialized = new AtomicBoolean();
+        CountingSessionFactory underTest = new CountingSessionFactory(AgentProxyAwareJschConfigSessionFactory.DEFAULT_MAX_IDLE_MILLIS) {
+            @Override
+            protected Session createSession(Host hc, String user, String host, int port, FS fs) throws JSchException {
+                bothConnecting.countDown();
+                try {
+                    serialized.compareAndSet(false, !bothConnecting.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.createSession(hc, user, host, port, fs);
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<ObjectId>> fetches = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                Path localRepoDir = tempDir.resolve("local" + i);
+                fetches.add(executor.submit(() -> fetch(localRepoDir, underTest, uri)));
+            }
+            for (Future<ObjectId> fetch : fetches) {
+                assertThat(fetch.get(TIMEOUT_SECONDS * 2, TimeUnit.SECONDS)).isEqualTo(remoteHead);
+            }
+        } finally {
+            executor.shutdownNow();
+            underTest.disconnectIdleSessions();
+        }
+
+        assertThat(serialized).isFalse();
+        assertThat(underTest.createdSessions).hasSize(2);
+    }
+
+    private ObjectId fetch(Path localRepoDir, AgentProxyAwareJschConfigSessionFactory sessionFactory, URIish remoteUri) throws Exception {
+        try (Git localGit = Git.init().setDirectory(localRepoDir.toFile()).setFs(fs).call()) {
+            localGit.fetch()
+                    .setRemote(remoteUri.toString())
+                    .setRefSpecs("+refs/heads/*:refs/remotes/origin/*")
+                    .setTransportConfigCallback(transport -> ((SshTransport) transport).setSshSessionFactory(sessionFactory))
+                    .call();
+            return localGit.getRepository().resolve("refs/remotes/origin/master");
+        }
+    }
+
+    private static class CountingSessionFactory extends AgentProxyAwareJschConfigSessionFactory {
+
+        final List<Session> createdSessions = new CopyOnWriteArrayList<>();
+
+        CountingSessionFactory(long maxIdleMillis) {
+            super(maxIdleMillis);
+        }
+
+        @Override
+        protected Session createSession(Host hc, String user, String host, int port, FS fs) throws JSchException {
+            Session session = super.createSession(hc, user, host, port, fs);
+            createdSessions.add(session);
+            return session;
+        }
+    }
+}
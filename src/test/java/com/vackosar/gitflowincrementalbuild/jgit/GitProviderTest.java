@@ -9,8 +9,10 @@ import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.util.Properties;
 
+import org.apache.maven.execution.MavenExecutionRequest;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.project.MavenProject;
+import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -38,6 +40,9 @@ public class GitProviderTest {
     @Mock
     private MavenProject currentProjectMock;
 
+    @Mock
+    private MavenExecutionRequest mavenExecutionRequestMock;
+
     private final GitProvider underTest = new GitProvider();
 
     @BeforeEach
@@ -61,6 +66,35 @@ public class GitProviderTest {
         });
     }
 
+    @Test
+    public void get_reuseAcrossBuilds() throws IOException, URISyntaxException, GitAPIException {
+        EmptyLocalRepoMock.withBasicPom(tempDir, emptyLocalRepoMock -> {
+            when(currentProjectMock.getBasedir()).thenReturn(emptyLocalRepoMock.getRepoDir().toFile());
+            when(mavenSessionMock.getRequest()).thenReturn(mavenExecutionRequestMock);
+            currentProjectMock.getProperties().remove(Property.disable.prefixedName());
+            currentProjectMock.getProperties().put(Property.reuseAcrossBuilds.prefixedName(), "true");
+
+            Git git = underTest.get(new Configuration(mavenSessionMock));
+            underTest.close();
+
+            // second build without reuseAcrossBuilds: reuses the instance, but closes it afterwards (in tearDown)
+            currentProjectMock.getProperties().remove(Property.reuseAcrossBuilds.prefixedName());
+            assertThat(underTest.get(new Configuration(mavenSessionMock))).isSameAs(git);
+        });
+    }
+
+    @Test
+    public void get_noReuseAcrossBuilds() throws IOException, URISyntaxException, GitAPIException {
+        EmptyLocalRepoMock.withBasicPom(tempDir, emptyLocalRepoMock -> {
+            when(currentProjectMock.getBasedir()).thenReturn(emptyLocalRepoMock.getRepoDir().toFile());
+
+            Git git = underTest.get(new Configuration(mavenSessionMock));
+            underTest.close();
+
+            assertThat(underTest.get(new Configuration(mavenSessionMock))).isNotSameAs(git);
+        });
+    }
+
     @Test
     public void get_noGitDir() {
 